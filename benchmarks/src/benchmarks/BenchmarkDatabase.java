@@ -0,0 +1,153 @@
+package benchmarks;
+
+import expensetracker.DatabaseManager;
+import expensetracker.MonthlyRollup;
+import expensetracker.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the benchmark database with synthetic users. The schema itself comes
+ * from the application's own migrations, which run on the first borrowed connection.
+ */
+final class BenchmarkDatabase {
+
+    static final String USERNAME = "bench_user";
+    static final String PASSWORD = "bench_pass";
+
+    static final String[] EXPENSE_CATEGORIES = {
+            "Food", "Rent", "Transport", "Utilities", "Health", "Entertainment",
+            "Shopping", "Education", "Travel", "Insurance", "Gifts", "Other"
+    };
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Interest"};
+
+    // Every seeded history spans three years back from today
+    private static final int HISTORY_DAYS = 3 * 365;
+    private static final int BATCH_SIZE = 10_000;
+
+    // A second user, so every query has to filter by user_id instead of reading the whole table
+    private static final String NOISE_USERNAME = "bench_noise";
+    private static final int NOISE_TRANSACTIONS = 1_000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Creates the benchmark user with {@code transactions} rows (20% income), a budget per
+     * expense category, and a smaller second user, then rebuilds the monthly rollup.
+     * @return The benchmark user's id.
+     */
+    static int seed(int transactions) throws SQLException {
+        // Fails with the driver's error, so a fork with a bad setup stops before any measurement
+        try (Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            refuseRealData(conn);
+            try (Statement stmt = conn.createStatement()) {
+                // Start from a clean slate when a fork reuses the database
+                stmt.executeUpdate("DELETE FROM monthly_category_totals");
+                stmt.executeUpdate("DELETE FROM daily_totals");
+                stmt.executeUpdate("DELETE FROM sync_tombstones");
+                stmt.executeUpdate("DELETE FROM replica_outbox");
+                stmt.executeUpdate("DELETE FROM recurring_transactions");
+                stmt.executeUpdate("DELETE FROM budgets");
+                stmt.executeUpdate("DELETE FROM transactions");
+                stmt.executeUpdate("DELETE FROM users");
+            }
+
+            // Stored the way sign-up stores it, so authenticating never has to rehash
+            String passwordHash = PasswordHasher.getInstance().hash(PASSWORD);
+            int userId = insertUser(conn, USERNAME, passwordHash);
+            int noiseUserId = insertUser(conn, NOISE_USERNAME, passwordHash);
+            insertTransactions(conn, userId, transactions, new SplittableRandom(42));
+            insertTransactions(conn, noiseUserId, NOISE_TRANSACTIONS, new SplittableRandom(7));
+            insertBudgets(conn, userId);
+
+            conn.commit();
+            conn.setAutoCommit(true);
+
+            MonthlyRollup.rebuild(null);
+            return userId;
+        }
+    }
+
+    /** Seeding wipes every table, so only do it on a database that holds nothing but benchmark users. */
+    private static void refuseRealData(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM users WHERE username NOT IN (?, ?)")) {
+            pstmt.setString(1, USERNAME);
+            pstmt.setString(2, NOISE_USERNAME);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new SQLException("The benchmark database contains real accounts; point -Dbudgetbuddy.db.url "
+                            + "or -Dbudgetbuddy.embedded.path at a dedicated database");
+                }
+            }
+        }
+    }
+
+    private static int insertUser(Connection conn, String username, String passwordHash) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO users (username, password, email) VALUES (?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, username);
+            pstmt.setString(2, passwordHash);
+            pstmt.setString(3, username + "@example.com");
+            pstmt.executeUpdate();
+
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static void insertTransactions(Connection conn, int userId, int count, SplittableRandom random)
+            throws SQLException {
+        LocalDate today = LocalDate.now();
+        String sql = "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                boolean income = random.nextInt(5) == 0;
+                String category = income
+                        ? INCOME_CATEGORIES[random.nextInt(INCOME_CATEGORIES.length)]
+                        : EXPENSE_CATEGORIES[random.nextInt(EXPENSE_CATEGORIES.length)];
+                double amount = income ? 500 + random.nextInt(300_000) / 100.0 : 1 + random.nextInt(50_000) / 100.0;
+
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, income ? "Income" : "Expense");
+                pstmt.setDouble(3, amount);
+                pstmt.setString(4, category);
+                pstmt.setString(5, "Synthetic " + category.toLowerCase() + " #" + i);
+                pstmt.setDate(6, Date.valueOf(today.minusDays(random.nextInt(HISTORY_DAYS))));
+                pstmt.addBatch();
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertBudgets(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO budgets (category, monthly_limit, user_id) VALUES (?, ?, ?)")) {
+            for (String category : EXPENSE_CATEGORIES) {
+                pstmt.setString(1, category);
+                pstmt.setDouble(2, 1_000);
+                pstmt.setInt(3, userId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Runs the benchmarks and writes the results as JSON to benchmarks/results/, one file
+ * per run, so two commits can be compared side by side.
+ * Any standard JMH option can be passed, e.g. {@code -p transactionCount=1000} or
+ * {@code -rff other.json}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        File resultFile = new File("benchmarks/results",
+                "bench-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        resultFile.getParentFile().mkdirs();
+
+        String result = commandLine.getResult().orElse(resultFile.getPath());
+
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(DataAccessBenchmarks.class.getSimpleName());
+        }
+
+        new Runner(builder.build()).run();
+        System.out.println("Results written to " + result);
+    }
+}
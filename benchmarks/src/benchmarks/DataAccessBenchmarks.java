@@ -0,0 +1,156 @@
+package benchmarks;
+
+import expensetracker.BudgetRepository;
+import expensetracker.BudgetStatus;
+import expensetracker.ColumnarLedger;
+import expensetracker.DashboardSnapshot;
+import expensetracker.LedgerCache;
+import expensetracker.Repositories;
+import expensetracker.TransactionRecord;
+import expensetracker.TransactionRepository;
+import expensetracker.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every query path behind the screens, and the loaders the screens call, for a
+ * user with 1k, 100k and 1M transactions, seeded by {@link BenchmarkDatabase}.
+ *
+ * Forks use the embedded backend by default. To compare against MySQL, replace the
+ * JVM arguments on the command line, e.g.
+ * {@code -jvmArgsAppend "-Dbudgetbuddy.backend=mysql -Dbudgetbuddy.db.url=jdbc:mysql://localhost:3306/budgetbuddy_bench -Dbudgetbuddy.columnar=false"}.
+ *
+ * Throughput gives ops/ms; SampleTime gives the latency distribution (p50, p90, p99,
+ * p99.9) per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dbudgetbuddy.backend=embedded",
+        "-Dbudgetbuddy.embedded.path=benchmarks/results/bench-db/budgetbuddy",
+        // The SQL paths are what is measured; the columnar ledger has its own benchmarks below
+        "-Dbudgetbuddy.columnar=false",
+        "-Xmx2g"
+})
+public class DataAccessBenchmarks {
+
+    private static final int PAGE_SIZE = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int transactionCount;
+
+    private final UserRepository users = Repositories.users();
+    private final TransactionRepository transactions = Repositories.transactions();
+    private final BudgetRepository budgets = Repositories.budgets();
+    private int userId;
+    private YearMonth month;
+    private TransactionRecord middleCursor;
+    private ColumnarLedger ledger;
+    private int lastQuarterStart;
+    private int today;
+
+    @Setup
+    public void seed() throws SQLException {
+        userId = BenchmarkDatabase.seed(transactionCount);
+        month = YearMonth.now();
+        middleCursor = transactions.loadTransactionPageAt(userId, transactionCount / 2, 1).get(0);
+        ledger = ColumnarLedger.load(userId);
+        today = (int) LocalDate.now().toEpochDay();
+        lastQuarterStart = today - 90;
+    }
+
+    // --- Query paths (repositories) ---
+
+    @Benchmark
+    public int authenticateUser() throws SQLException {
+        return users.authenticate(BenchmarkDatabase.USERNAME, BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public DashboardSnapshot dashboardAggregates() throws SQLException {
+        return transactions.loadDashboardSnapshot(userId, month);
+    }
+
+    @Benchmark
+    public List<BudgetStatus> budgetStatusJoin() throws SQLException {
+        return budgets.loadBudgetStatus(userId, month);
+    }
+
+    @Benchmark
+    public int countTransactions() throws SQLException {
+        return transactions.countTransactions(userId);
+    }
+
+    @Benchmark
+    public List<TransactionRecord> historyFirstPage() throws SQLException {
+        return transactions.loadTransactionPage(userId, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TransactionRecord> historyMiddlePageKeyset() throws SQLException {
+        return transactions.loadTransactionPage(userId, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TransactionRecord> historyMiddlePageOffset() throws SQLException {
+        return transactions.loadTransactionPageAt(userId, transactionCount / 2, PAGE_SIZE);
+    }
+
+    // --- Screen loaders ---
+
+    /** The dashboard on a cache miss: what the first visit after login or a bulk import costs. */
+    @Benchmark
+    public DashboardSnapshot dashboardLoadColdCache() throws SQLException {
+        LedgerCache.getInstance().invalidate(userId);
+        return LedgerCache.getInstance().getSnapshot(userId);
+    }
+
+    /** The dashboard and budget screens on every later visit. */
+    @Benchmark
+    public DashboardSnapshot dashboardLoadWarmCache() throws SQLException {
+        return LedgerCache.getInstance().getSnapshot(userId);
+    }
+
+    /** What the reports table runs on reload: the row count, then the first page. */
+    @Benchmark
+    public List<TransactionRecord> reportsTableReload() throws SQLException {
+        transactions.countTransactions(userId);
+        return transactions.loadTransactionPage(userId, null, PAGE_SIZE);
+    }
+
+    // --- Columnar ledger ---
+
+    @Benchmark
+    public ColumnarLedger columnarLoad() throws SQLException {
+        return ColumnarLedger.load(userId);
+    }
+
+    @Benchmark
+    public DashboardSnapshot columnarSnapshot() {
+        return ledger.toSnapshot(month);
+    }
+
+    @Benchmark
+    public Map<String, Double> columnarLastQuarterByCategory() {
+        return ledger.sumByCategory(true, lastQuarterStart, today);
+    }
+}
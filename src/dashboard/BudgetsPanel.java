@@ -1,25 +1,29 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.BudgetRepository;
+import expensetracker.BudgetStatus;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
 import expensetracker.UserSession;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
 import java.text.DecimalFormat;
-import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 
-public class BudgetsPanel extends JPanel {
+public class BudgetsPanel extends JPanel implements DataView {
 
     private final Color primaryGreen = new Color(76, 175, 80);
     private final Color textColor = new Color(51, 51, 51);
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    private final BudgetRepository budgets = Repositories.budgets();
 
     private JComboBox<String> categoryComboBox;
     private JTextField limitField;
     private JButton saveBudgetButton;
+    private JLabel statusLabel;
     private JPanel budgetDisplayPanel; // Component to be refreshed
 
     public BudgetsPanel() {
@@ -91,6 +95,11 @@ public class BudgetsPanel extends JPanel {
 
         formPanel.add(saveBudgetButton, gbc);
 
+        statusLabel = new JLabel(" ");
+        gbc.gridy = 3;
+        gbc.insets = new Insets(0, 10, 10, 10);
+        formPanel.add(statusLabel, gbc);
+
         return formPanel;
     }
 
@@ -107,19 +116,43 @@ public class BudgetsPanel extends JPanel {
 
     /**
      * Clears the old table and inserts the new, dynamically generated status table.
+     * The query runs on the database executor; a placeholder is shown until it returns.
      */
 
     private void refreshBudgetStatus() {
-        // 1. Generate the new table
-        JTable budgetTable = createBudgetStatusTable();
+        int userId = UserSession.getCurrentUserId();
 
-        // 2. Clear the old content from the display container
-        budgetDisplayPanel.removeAll();
+        // 1. Show a placeholder while the query is in flight
+        JLabel loadingLabel = new JLabel("Loading budget status...", SwingConstants.CENTER);
+        showInDisplayPanel(loadingLabel);
+
+        DbExecutor.submit(() -> budgets.loadBudgetStatus(userId, YearMonth.now()))
+                .whenCompleteAsync((statuses, error) -> {
+                    if (error != null) {
+                        String message = DbExecutor.rootCause(error).getMessage();
+                        System.err.println("Error loading budget status: " + message);
+                        JLabel errorLabel = new JLabel("Database Error loading budgets: " + message, SwingConstants.CENTER);
+                        errorLabel.setForeground(Color.RED);
+                        showInDisplayPanel(errorLabel);
+                        return;
+                    }
+
+                    // 2. Generate the new table, wrapped in a JScrollPane
+                    showInDisplayPanel(new JScrollPane(createBudgetStatusTable(statuses)));
+                }, SwingUtilities::invokeLater);
+    }
 
-        // 3. Add the new table, wrapped in a JScrollPane, to the CENTER
-        budgetDisplayPanel.add(new JScrollPane(budgetTable), BorderLayout.CENTER);
+    @Override
+    public void refreshData() {
+        refreshBudgetStatus();
+    }
 
-        // 4. Force the layout to update
+    private void showInDisplayPanel(Component content) {
+        // Clear the old content from the display container and add the new one to the CENTER
+        budgetDisplayPanel.removeAll();
+        budgetDisplayPanel.add(content, BorderLayout.CENTER);
+
+        // Force the layout to update
         budgetDisplayPanel.revalidate();
         budgetDisplayPanel.repaint();
     }
@@ -133,96 +166,63 @@ public class BudgetsPanel extends JPanel {
         String limitStr = limitField.getText();
         int userId = UserSession.getCurrentUserId();
 
+        double limit;
         try {
-            double limit = Double.parseDouble(limitStr);
-
-            // SQL: INSERT OR UPDATE if the category already exists for this user
-            String sql = "INSERT INTO budgets (category, monthly_limit, user_id) VALUES (?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE monthly_limit = VALUES(monthly_limit)";
-
-            try (Connection conn = dbManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-                pstmt.setString(1, category);
-                pstmt.setDouble(2, limit);
-                pstmt.setInt(3, userId);
-
-                pstmt.executeUpdate();
-
-                JOptionPane.showMessageDialog(this,
-                        category + " budget set to $" + limit,
-                        "Budget Saved", JOptionPane.INFORMATION_MESSAGE);
-                limitField.setText("");
-
-                // Refresh the display table to show the new limit
-                refreshBudgetStatus();
-
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this,
-                        "Database Error saving budget: " + e.getMessage(),
-                        "SQL Error", JOptionPane.ERROR_MESSAGE);
-            }
-
+            limit = Double.parseDouble(limitStr);
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this,
                     "Please enter a valid number for the limit.",
                     "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+
+        saveBudgetButton.setEnabled(false);
+        showStatus("Saving budget...", textColor);
+
+        DbExecutor.submit(() -> {
+                    budgets.saveBudget(userId, category, limit);
+                    return null;
+                })
+                .whenCompleteAsync((ignored, error) -> {
+                    saveBudgetButton.setEnabled(true);
+                    if (error != null) {
+                        showStatus("Database Error saving budget: " + DbExecutor.rootCause(error).getMessage(), Color.RED);
+                        return;
+                    }
+
+                    showStatus(category + " budget set to $" + limit, primaryGreen);
+                    limitField.setText("");
+
+                    // Refresh the display table to show the new limit
+                    refreshBudgetStatus();
+                }, SwingUtilities::invokeLater);
+    }
+
+    /** Shows progress or errors under the form instead of in a blocking dialog. */
+    private void showStatus(String message, Color color) {
+        statusLabel.setText(message);
+        statusLabel.setForeground(color);
     }
 
-    private JTable createBudgetStatusTable() {
+    private JTable createBudgetStatusTable(List<BudgetStatus> statuses) {
         String[] columnNames = {"Category", "Limit ($)", "Spent ($)", "Remaining ($)", "Status"};
         DefaultTableModel model = new DefaultTableModel(columnNames, 0);
 
         DecimalFormat df = new DecimalFormat("#,##0.00");
 
-        // Get the current date details for filtering transactions
-        LocalDate now = LocalDate.now();
-        String firstDayOfMonth = now.withDayOfMonth(1).toString();
-        String lastDayOfMonth = now.withDayOfMonth(now.lengthOfMonth()).toString();
-        int userId = UserSession.getCurrentUserId();
+        for (BudgetStatus budget : statuses) {
+            String status = budget.isExceeded() ? "EXCEEDED!" : "OK";
 
-        // SQL: Complex query to join budgets with transactions for the current month
-        String sql = "SELECT b.category, b.monthly_limit, " +
-                "SUM(CASE WHEN t.type = 'Expense' AND t.transaction_date BETWEEN ? AND ? THEN t.amount ELSE 0 END) AS total_spent " +
-                "FROM budgets b " +
-                "LEFT JOIN transactions t ON b.category = t.category AND t.user_id = b.user_id " +
-                "WHERE b.user_id = ? " + // Filter budgets by user ID
-                "GROUP BY b.category, b.monthly_limit";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, firstDayOfMonth);
-            pstmt.setString(2, lastDayOfMonth);
-            pstmt.setInt(3, userId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    String category = rs.getString("category");
-                    double limit = rs.getDouble("monthly_limit");
-                    double spent = rs.getDouble("total_spent");
-                    double remaining = limit - spent;
-
-                    String status = (spent > limit) ? "EXCEEDED!" : "OK";
-
-                    model.addRow(new Object[]{
-                            category,
-                            df.format(limit),
-                            df.format(spent),
-                            df.format(remaining),
-                            status
-                    });
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error loading budget status: " + e.getMessage());
-            JOptionPane.showMessageDialog(this,
-                    "Database Error loading budgets. Check console for details.",
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            model.addRow(new Object[]{
+                    budget.getCategory(),
+                    df.format(budget.getMonthlyLimit()),
+                    df.format(budget.getSpent()),
+                    df.format(budget.getRemaining()),
+                    status
+            });
         }
 
         JTable table = new JTable(model);
         return table;
     }
-}
\ No newline at end of file
+}
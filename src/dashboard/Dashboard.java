@@ -1,16 +1,22 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.BudgetAlert;
+import expensetracker.BudgetAlertEngine;
+import expensetracker.DashboardSnapshot;
+import expensetracker.DataVersion;
+import expensetracker.DbExecutor;
+import expensetracker.LedgerCache;
 import expensetracker.UserSession;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -24,9 +30,27 @@ public class Dashboard extends JFrame {
     private final Color lightGray = new Color(240, 240, 240);
     private final Color textColor = new Color(51, 51, 51);
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    private LedgerCache ledgerCache = LedgerCache.getInstance();
     private JPanel mainContentPanel;
 
+    // The dashboard view is built once; refreshes only update these widgets in place
+    private JPanel dashboardView;
+    private JLabel incomeLabel;
+    private JLabel expensesLabel;
+    private JLabel savingsLabel;
+    private JLabel statusLabel;
+    private JFreeChart chart;
+    private DefaultPieDataset chartDataset;
+    private boolean dashboardLoaded = false;
+
+    // Sidebar screens, built on first visit and kept for the session, with the data version each last showed
+    private final Map<String, JPanel> views = new HashMap<>();
+    private final Map<String, Long> viewVersions = new HashMap<>();
+
+    // Budget alerts float over the bottom-right corner of whichever screen is shown
+    private static final int ALERT_DISPLAY_MS = 6_000;
+    private JPanel alertPanel;
+
     public Dashboard() {
 
         setTitle("BudgetBuddy - Dashboard");
@@ -40,9 +64,18 @@ public class Dashboard extends JFrame {
 
 
         mainContentPanel = new JPanel(new BorderLayout());
-        mainContentPanel.add(createDashboardContent(), BorderLayout.CENTER);
+        dashboardView = createDashboardContent();
+        mainContentPanel.add(dashboardView, BorderLayout.CENTER);
         add(mainContentPanel, BorderLayout.CENTER);
 
+        alertPanel = new JPanel(new GridLayout(0, 1, 0, 5));
+        alertPanel.setOpaque(false);
+        getLayeredPane().add(alertPanel, JLayeredPane.POPUP_LAYER);
+        // Raised on the thread that saved or deleted; shown without blocking the user
+        BudgetAlertEngine.getInstance().setListener(alert -> SwingUtilities.invokeLater(() -> showBudgetAlert(alert)));
+
+        loadDashboardData();
+
         setVisible(true);
     }
 
@@ -52,19 +85,64 @@ public class Dashboard extends JFrame {
      */
     public void refreshDashboard() {
 
-        mainContentPanel.removeAll();
+        // Re-attach the existing view instead of rebuilding the cards and the chart
+        if (dashboardView.getParent() != mainContentPanel) {
+            switchContent(dashboardView);
+        }
+
+        loadDashboardData();
+    }
 
-        mainContentPanel.add(createDashboardContent(), BorderLayout.CENTER);
+    @Override
+    public void dispose() {
+        BudgetAlertEngine.getInstance().setListener(null);
+        super.dispose();
+    }
 
+    /** Shows a budget alert for a few seconds; several alerts stack. */
+    private void showBudgetAlert(BudgetAlert alert) {
+        JLabel label = new JLabel(alert.toString());
+        label.setOpaque(true);
+        label.setBackground(alert.isLimitReached() ? Color.RED : new Color(255, 152, 0));
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("Arial", Font.BOLD, 14));
+        label.setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
+        alertPanel.add(label);
+        layoutAlerts();
+
+        Timer timer = new Timer(ALERT_DISPLAY_MS, e -> {
+            alertPanel.remove(label);
+            layoutAlerts();
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
 
-        mainContentPanel.revalidate();
-        mainContentPanel.repaint();
+    private void layoutAlerts() {
+        JLayeredPane layers = getLayeredPane();
+        Dimension size = alertPanel.getPreferredSize();
+        alertPanel.setBounds(layers.getWidth() - size.width - 20, layers.getHeight() - size.height - 20,
+                size.width, size.height);
+        alertPanel.revalidate();
+        layers.repaint();
+    }
+
+    /**
+     * Re-reads the dashboard figures without switching to the dashboard view, e.g. when
+     * a journaled save reaches the database after the user has moved on.
+     */
+    public void reloadDashboardData() {
+        loadDashboardData();
     }
 
     /**
      * Method to dynamically swap the content panel in the center of the frame.
+     * Showing the panel that is already there is a no-op, so nothing is laid out again.
      */
     public void switchContent(JPanel newPanel) {
+        if (newPanel.getParent() == mainContentPanel) {
+            return;
+        }
         mainContentPanel.removeAll();
         mainContentPanel.add(newPanel, BorderLayout.CENTER);
         mainContentPanel.revalidate();
@@ -92,7 +170,7 @@ public class Dashboard extends JFrame {
         gbc.insets = new Insets(10, 10, 10, 10);
 
 
-        String[] menuItems = {"Dashboard", "Transactions", "Reports", "Budgets", "Settings"};
+        String[] menuItems = {"Dashboard", "Transactions", "Recurring", "Reports", "Trends", "Budgets", "Settings"};
         for (int i = 0; i < menuItems.length; i++) {
             JButton btn = createSidebarButton(menuItems[i]);
             gbc.gridy = i + 1;
@@ -132,15 +210,19 @@ public class Dashboard extends JFrame {
                 refreshDashboard();
             } else if (text.equals("Transactions")) {
                 // Passes 'this' for refresh logic
-                switchContent(new TransactionForm(this));
+                showView(text, () -> new TransactionForm(this));
+            } else if (text.equals("Recurring")) {
+                showView(text, RecurringPanel::new);
             } else if (text.equals("Reports")) {
                 // Passes 'this' for deletion/refresh logic
-                switchContent(new ReportsPanel(this));
+                showView(text, () -> new ReportsPanel(this));
+            } else if (text.equals("Trends")) {
+                showView(text, TrendsPanel::new);
             } else if (text.equals("Budgets")) {
-                switchContent(new BudgetsPanel());
+                showView(text, BudgetsPanel::new);
             } else if (text.equals("Settings")) {
                 // Passes 'this' for logout/password change logic
-                switchContent(new SettingsPanel(this));
+                showView(text, () -> new SettingsPanel(this));
             } else {
                 JOptionPane.showMessageDialog(this, "Navigating to: " + text);
             }
@@ -150,69 +232,40 @@ public class Dashboard extends JFrame {
     }
 
 
-    private double getTransactionSum(String type) {
-        double sum = 0.0;
-        int userId = UserSession.getCurrentUserId();
-        String sql = "SELECT SUM(amount) AS total FROM transactions WHERE type = ? AND user_id = ?";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, type);
-            pstmt.setInt(2, userId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    sum = rs.getDouble("total");
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching sum for type " + type + ": " + e.getMessage());
+    /**
+     * Shows a sidebar screen, building it on the first visit only. A {@link DataView}
+     * reloads its data when a write has moved the {@link DataVersion} since it was last
+     * shown; otherwise it comes back exactly as it was left.
+     */
+    private void showView(String name, Supplier<JPanel> factory) {
+        // Read before any reload, so a write during the reload still marks the view stale
+        long version = DataVersion.current();
+        JPanel view = views.get(name);
+        if (view == null) {
+            view = factory.get();
+            views.put(name, view);
+        } else if (view instanceof DataView && viewVersions.get(name) != version) {
+            ((DataView) view).refreshData();
         }
-        return sum;
+        viewVersions.put(name, version);
+        switchContent(view);
     }
 
-    private DefaultPieDataset createChartDataset() {
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        int userId = UserSession.getCurrentUserId();
-
-        // SQL: Sum expenses by category for the current user
-        String sql = "SELECT category, SUM(amount) AS total_spent " +
-                "FROM transactions " +
-                "WHERE type = 'Expense' AND user_id = ? " +
-                "GROUP BY category";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, userId);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    dataset.setValue(rs.getString("category"), rs.getDouble("total_spent"));
-                }
+    /**
+     * Records that a kept view that was current at {@code fromVersion} has applied its own
+     * write locally and is current at {@code toVersion}, so the next visit does not reload
+     * it for that write. A view that was already stale keeps its older version.
+     */
+    public void markViewCurrent(JPanel view, long fromVersion, long toVersion) {
+        views.forEach((name, kept) -> {
+            if (kept == view && viewVersions.get(name) == fromVersion) {
+                viewVersions.put(name, toVersion);
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching chart data: " + e.getMessage());
-        }
-        return dataset;
+        });
     }
 
-
     private JPanel createDashboardContent() {
 
-        double totalIncome = getTransactionSum("Income");
-        double totalExpenses = getTransactionSum("Expense");
-        double netSavings = totalIncome - totalExpenses;
-
-        DecimalFormat df = new DecimalFormat("#,##0.00");
-        String incomeStr = String.format("$%s", df.format(totalIncome));
-        String expensesStr = String.format("$%s", df.format(totalExpenses));
-        String savingsStr = String.format("$%s", df.format(netSavings));
-
-        Color savingsColor = (netSavings >= 0) ? primaryGreen : Color.RED;
-
-
         JPanel contentPanel = new JPanel(new BorderLayout(15, 15));
         contentPanel.setBackground(lightGray);
         contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -220,20 +273,27 @@ public class Dashboard extends JFrame {
         JPanel summaryPanel = new JPanel(new GridLayout(1, 3, 20, 0));
         summaryPanel.setOpaque(false);
 
-        summaryPanel.add(createSummaryCard("Total Income", incomeStr, Color.BLUE));
-        summaryPanel.add(createSummaryCard("Total Expenses", expensesStr, Color.RED));
-        summaryPanel.add(createSummaryCard("Net Savings", savingsStr, savingsColor)); // Dynamic color
+        // Placeholders until the totals arrive from the database thread
+        incomeLabel = createValueLabel(Color.BLUE);
+        expensesLabel = createValueLabel(Color.RED);
+        savingsLabel = createValueLabel(textColor);
+
+        summaryPanel.add(createSummaryCard("Total Income", incomeLabel));
+        summaryPanel.add(createSummaryCard("Total Expenses", expensesLabel));
+        summaryPanel.add(createSummaryCard("Net Savings", savingsLabel)); // Dynamic color
 
         contentPanel.add(summaryPanel, BorderLayout.NORTH);
 
 
-        JFreeChart chart = ChartFactory.createPieChart(
+        chartDataset = new DefaultPieDataset();
+        chart = ChartFactory.createPieChart(
                 "Expense Breakdown by Category",
-                createChartDataset(),
+                chartDataset,
                 true,
                 true,
                 false
         );
+        chart.getPlot().setNoDataMessage("Loading...");
 
         ChartPanel chartPanel = new ChartPanel(chart);
         chartPanel.setPreferredSize(new Dimension(500, 300));
@@ -246,10 +306,98 @@ public class Dashboard extends JFrame {
 
         contentPanel.add(centerPanel, BorderLayout.CENTER);
 
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(Color.RED);
+        contentPanel.add(statusLabel, BorderLayout.SOUTH);
+
         return contentPanel;
     }
 
-    private JPanel createSummaryCard(String title, String value, Color color) {
+    /**
+     * Fills the dashboard widgets, straight from the ledger cache when it has a fresh
+     * copy and from the database executor otherwise.
+     */
+    private void loadDashboardData() {
+        int userId = UserSession.getCurrentUserId();
+
+        DashboardSnapshot cached = ledgerCache.peek(userId);
+        if (cached != null) {
+            showSnapshot(cached);
+            return;
+        }
+
+        DbExecutor.submit(() -> ledgerCache.getSnapshot(userId))
+                .whenCompleteAsync((snapshot, error) -> {
+                    if (error != null) {
+                        String message = DbExecutor.rootCause(error).getMessage();
+                        System.err.println("Error loading dashboard: " + message);
+                        // Keep whatever was shown last; only the first load has nothing to fall back to
+                        if (!dashboardLoaded) {
+                            incomeLabel.setText("--");
+                            expensesLabel.setText("--");
+                            savingsLabel.setText("--");
+                            chart.getPlot().setNoDataMessage("No data available");
+                        }
+                        statusLabel.setText("Could not load dashboard data: " + message);
+                        return;
+                    }
+
+                    showSnapshot(snapshot);
+                }, SwingUtilities::invokeLater);
+    }
+
+    private void showSnapshot(DashboardSnapshot snapshot) {
+        double totalIncome = snapshot.getTotalIncome();
+        double totalExpenses = snapshot.getTotalExpenses();
+        double netSavings = snapshot.getNetSavings();
+
+        DecimalFormat df = new DecimalFormat("#,##0.00");
+        incomeLabel.setText(String.format("$%s", df.format(totalIncome)));
+        expensesLabel.setText(String.format("$%s", df.format(totalExpenses)));
+        savingsLabel.setText(String.format("$%s", df.format(netSavings)));
+        savingsLabel.setForeground((netSavings >= 0) ? primaryGreen : Color.RED);
+        statusLabel.setText(" ");
+
+        if (!dashboardLoaded) {
+            // Setting the message fires a plot change, so it is only done once
+            chart.getPlot().setNoDataMessage("No data available");
+            dashboardLoaded = true;
+        }
+        updateChartDataset(snapshot.getExpensesByCategory());
+    }
+
+    /**
+     * Brings the pie dataset in line with the new totals. Only slices that were added,
+     * changed or removed are touched, so an unchanged chart fires no change events.
+     */
+    private void updateChartDataset(Map<String, Double> expensesByCategory) {
+        // The slices are keyed by category name
+        List<String> staleKeys = new ArrayList<>();
+        for (Object key : chartDataset.getKeys()) {
+            if (!expensesByCategory.containsKey(key)) {
+                staleKeys.add((String) key);
+            }
+        }
+        for (String key : staleKeys) {
+            chartDataset.remove(key);
+        }
+
+        expensesByCategory.forEach((category, total) -> {
+            Number current = chartDataset.getIndex(category) >= 0 ? chartDataset.getValue(category) : null;
+            if (current == null || current.doubleValue() != total) {
+                chartDataset.setValue(category, total);
+            }
+        });
+    }
+
+    private JLabel createValueLabel(Color color) {
+        JLabel valueLabel = new JLabel("Loading...");
+        valueLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        valueLabel.setForeground(color);
+        return valueLabel;
+    }
+
+    private JPanel createSummaryCard(String title, JLabel valueLabel) {
         JPanel card = new JPanel(new BorderLayout(10, 5));
         card.setBackground(Color.WHITE);
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -262,9 +410,6 @@ public class Dashboard extends JFrame {
         titleLabel.setForeground(textColor);
         card.add(titleLabel, BorderLayout.NORTH);
 
-        JLabel valueLabel = new JLabel(value);
-        valueLabel.setFont(new Font("Arial", Font.BOLD, 28));
-        valueLabel.setForeground(color);
         card.add(valueLabel, BorderLayout.CENTER);
 
         return card;
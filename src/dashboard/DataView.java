@@ -0,0 +1,12 @@
+package dashboard;
+
+/**
+ * A content panel that {@link Dashboard} builds once per session and shows again on
+ * every visit. {@link #refreshData()} is called when the panel is shown after a write
+ * has made what it shows stale (see {@link expensetracker.DataVersion}).
+ */
+interface DataView {
+
+    /** Reloads the panel's data in the background, keeping its components and inputs. */
+    void refreshData();
+}
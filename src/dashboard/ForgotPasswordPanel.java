@@ -1,12 +1,10 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.UserRepository;
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 
 public class ForgotPasswordPanel extends JPanel {
 
@@ -18,7 +16,7 @@ public class ForgotPasswordPanel extends JPanel {
     private JPasswordField confirmPasswordField;
     private JButton resetButton;
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    private final UserRepository users = Repositories.users();
     private Login parentFrame;
 
     public ForgotPasswordPanel(Login parent) {
@@ -98,33 +96,31 @@ public class ForgotPasswordPanel extends JPanel {
 
         }
 
-        String sql = "UPDATE users SET password = ? WHERE username = ?";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, newPass);
-            pstmt.setString(2, username);
-
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                JOptionPane.showMessageDialog(this,
-                        "Password for " + username + " reset successfully!",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                // Clear fields and return to login screen
-                usernameField.setText("");
-                newPasswordField.setText("");
-                confirmPasswordField.setText("");
-
-                parentFrame.switchContent(parentFrame.createLoginFormComponent());
-            } else {
-                JOptionPane.showMessageDialog(this, "User '" + username + "' not found.", "Reset Failed", JOptionPane.ERROR_MESSAGE);
-            }
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database Error during reset: " + e.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-        }
+        // The new password is hashed off the EDT
+        resetButton.setEnabled(false);
+
+        DbExecutor.submit(() -> users.updatePassword(username, newPass))
+                .whenCompleteAsync((updated, error) -> {
+                    resetButton.setEnabled(true);
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this, "Database Error during reset: " + DbExecutor.rootCause(error).getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this,
+                                "Password for " + username + " reset successfully!",
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                        // Clear fields and return to login screen
+                        usernameField.setText("");
+                        newPasswordField.setText("");
+                        confirmPasswordField.setText("");
+
+                        parentFrame.switchContent(parentFrame.createLoginFormComponent());
+                    } else {
+                        JOptionPane.showMessageDialog(this, "User '" + username + "' not found.", "Reset Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
     }
 }
\ No newline at end of file
@@ -1,6 +1,14 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.BudgetAlertEngine;
+import expensetracker.ColumnarStore;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.RecurringScheduler;
+import expensetracker.ReplicaSync;
+import expensetracker.SearchIndexStore;
+import expensetracker.TransactionJournal;
+import expensetracker.UserRepository;
 import expensetracker.UserSession;
 import javax.swing.*;
 import java.awt.*;
@@ -18,7 +26,7 @@ public class Login extends JFrame {
 
     private JTextField usernameField = new JTextField(25);
     private JPasswordField passwordField = new JPasswordField(25);
-    private DatabaseManager dbManager = new DatabaseManager();
+    private final UserRepository users = Repositories.users();
 
     private JPanel mainContentPanel;
 
@@ -149,28 +157,51 @@ public class Login extends JFrame {
             String user = usernameField.getText();
             String pass = new String(passwordField.getPassword());
 
-            int userId = dbManager.authenticateUser(user, pass); // Get the ID
-
-            if (userId != -1) {
-
-                UserSession.setCurrentUserId(userId);
-                UserSession.setCurrentUsername(user);
-
-                JOptionPane.showMessageDialog(this, "Login Successful! Welcome, " + user + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                new Dashboard().setVisible(true);
-                this.dispose();
-
-            } else {
-                JOptionPane.showMessageDialog(this, "Invalid Username or Password.", "Login Failed", JOptionPane.ERROR_MESSAGE);
-            }
+            // Password hashing is deliberately slow, so it never runs on the EDT
+            loginButton.setEnabled(false);
+
+            DbExecutor.submit(() -> users.authenticate(user, pass)) // Get the ID
+                    .whenCompleteAsync((userId, error) -> {
+                        loginButton.setEnabled(true);
+                        if (error != null) {
+                            Throwable cause = DbExecutor.rootCause(error);
+                            System.err.println("Authentication query failed.");
+                            cause.printStackTrace();
+                            JOptionPane.showMessageDialog(this, "Could not sign in: " + cause.getMessage(), "Login Failed", JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+
+                        if (userId != -1) {
+
+                            UserSession.setCurrentUserId(userId);
+                            UserSession.setCurrentUsername(user);
+                            // Load the user's transactions into memory while the welcome dialog is up
+                            ColumnarStore.getInstance().open(userId);
+                            SearchIndexStore.getInstance().open(userId);
+                            BudgetAlertEngine.getInstance().open(userId);
+
+                            JOptionPane.showMessageDialog(this, "Login Successful! Welcome, " + user + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            new Dashboard().setVisible(true);
+                            this.dispose();
+
+                        } else {
+                            JOptionPane.showMessageDialog(this, "Invalid Username or Password.", "Login Failed", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }, SwingUtilities::invokeLater);
         });
 
         return loginPanel;
     }
 
     public static void main(String[] args) {
-        
+        // Starts writing any saves the last run left in the journal while the user logs in
+        TransactionJournal.getInstance();
+        // On the replica backend, starts pulling what changed elsewhere since the last run
+        ReplicaSync.getInstance().start();
+        // Writes the recurring transactions that fell due while the app was closed
+        RecurringScheduler.getInstance().start();
+
         SwingUtilities.invokeLater(() -> new Login());
     }
 }
\ No newline at end of file
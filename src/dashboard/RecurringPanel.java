@@ -0,0 +1,147 @@
+package dashboard;
+
+import expensetracker.DbExecutor;
+import expensetracker.RecurringRepository;
+import expensetracker.RecurringTransaction;
+import expensetracker.Repositories;
+import expensetracker.UserSession;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the user's recurring transactions and stops the ones no longer wanted. New ones
+ * are set up with the "Repeats" option of the transaction form.
+ */
+public class RecurringPanel extends JPanel implements DataView {
+
+    private final Color textColor = new Color(51, 51, 51);
+    private final Color primaryGreen = new Color(76, 175, 80);
+
+    private final RecurringRepository recurring = Repositories.recurring();
+
+    private final DefaultTableModel tableModel;
+    private final JTable table;
+    private final JButton stopButton;
+    private final JLabel statusLabel;
+
+    // The templates behind the table rows, in row order
+    private List<RecurringTransaction> templates = new ArrayList<>();
+
+    public RecurringPanel() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("Recurring Transactions", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        titleLabel.setForeground(textColor);
+        add(titleLabel, BorderLayout.NORTH);
+
+        String[] columnNames = {"Type", "Category", "Amount ($)", "Repeats", "Next Entry", "Description"};
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        table = new JTable(tableModel);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(25);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        stopButton = new JButton("STOP SELECTED");
+        stopButton.setBackground(Color.RED);
+        stopButton.setForeground(Color.WHITE);
+        stopButton.setFocusPainted(false);
+        stopButton.addActionListener(e -> stopSelected());
+
+        statusLabel = new JLabel(" ");
+        JPanel controlPanel = new JPanel(new BorderLayout());
+        controlPanel.setOpaque(false);
+        controlPanel.add(statusLabel, BorderLayout.CENTER);
+        controlPanel.add(stopButton, BorderLayout.EAST);
+        add(controlPanel, BorderLayout.SOUTH);
+
+        loadTemplates();
+    }
+
+    @Override
+    public void refreshData() {
+        loadTemplates();
+    }
+
+    private void loadTemplates() {
+        int userId = UserSession.getCurrentUserId();
+        showStatus("Loading...", textColor);
+
+        DbExecutor.submit(() -> recurring.loadRecurring(userId))
+                .whenCompleteAsync((loaded, error) -> {
+                    if (error != null) {
+                        String message = DbExecutor.rootCause(error).getMessage();
+                        System.err.println("Error loading recurring transactions: " + message);
+                        showStatus("Could not load recurring transactions: " + message, Color.RED);
+                        return;
+                    }
+
+                    templates = loaded;
+                    DecimalFormat df = new DecimalFormat("#,##0.00");
+                    tableModel.setRowCount(0);
+                    for (RecurringTransaction template : loaded) {
+                        tableModel.addRow(new Object[]{
+                                template.getType(),
+                                template.getCategory(),
+                                df.format(template.getAmount()),
+                                template.describeFrequency(),
+                                template.getNextDate(),
+                                template.getDescription()
+                        });
+                    }
+                    showStatus(loaded.isEmpty() ? "No recurring transactions. Use \"Repeats\" when recording a transaction." : " ", textColor);
+                }, SwingUtilities::invokeLater);
+    }
+
+    /** Stops the selected template; the entries it already added stay in the history. */
+    private void stopSelected() {
+        int selectedRow = table.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a recurring transaction to stop.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        RecurringTransaction template = templates.get(selectedRow);
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "Stop the " + template.describeFrequency().toLowerCase() + " " + template.getCategory()
+                        + " transaction? Entries already added are kept.",
+                "Confirm Stop", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        int userId = UserSession.getCurrentUserId();
+        stopButton.setEnabled(false);
+
+        DbExecutor.submit(() -> recurring.deleteRecurring(userId, template.getRecurringId()))
+                .whenCompleteAsync((deleted, error) -> {
+                    stopButton.setEnabled(true);
+                    if (error != null) {
+                        Throwable cause = DbExecutor.rootCause(error);
+                        showStatus("Database Error: " + cause.getMessage(), Color.RED);
+                        cause.printStackTrace();
+                        return;
+                    }
+
+                    loadTemplates();
+                    showStatus("Recurring transaction stopped.", primaryGreen);
+                }, SwingUtilities::invokeLater);
+    }
+
+    private void showStatus(String message, Color color) {
+        statusLabel.setText(message);
+        statusLabel.setForeground(color);
+    }
+}
@@ -1,23 +1,54 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.DataVersion;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.SearchResult;
+import expensetracker.TransactionExporter;
+import expensetracker.TransactionQuery;
+import expensetracker.TransactionRecord;
+import expensetracker.TransactionRepository;
 import expensetracker.UserSession;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-
-public class ReportsPanel extends JPanel {
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+public class ReportsPanel extends JPanel implements DataView {
 
     private final Color primaryGreen = new Color(76, 175, 80);
     private final Color textColor = new Color(51, 51, 51);
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    // Typing faster than this runs one search for the whole burst
+    private static final int SEARCH_DELAY_MS = 80;
+
+    private final TransactionRepository transactions = Repositories.transactions();
     private JTable transactionTable;
+    private TransactionTableModel model;
     private JButton deleteButton;
+    private JButton exportButton;
+    private JLabel statusLabel;
+    private JTextField searchField;
+    private JComboBox<String> typeFilter;
+    private JComboBox<String> categoryFilter;
+    private JTextField fromDateField;
+    private JTextField toDateField;
+    private JTextField minAmountField;
+    private JTextField maxAmountField;
+    private Timer searchTimer;
+    // Bumped per search, so a slow answer to an older query never replaces a newer one
+    private int searchGeneration = 0;
     private Dashboard parentFrame;
 
     public ReportsPanel(Dashboard parent) {
@@ -31,134 +62,430 @@ public class ReportsPanel extends JPanel {
         titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
         titleLabel.setForeground(textColor);
 
-        String[] columnNames = {"No.", "ID", "Type", "Category", "Amount ($)", "Date", "Description"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
+        // Rows are paged in from the database as the user scrolls
+        model = new TransactionTableModel(transactions, UserSession.getCurrentUserId(), this::showLoadError);
         transactionTable = new JTable(model);
         transactionTable.setFont(new Font("Arial", Font.PLAIN, 12));
         transactionTable.setRowHeight(25);
+        // Shift- and Ctrl-click select many rows for one batch delete
+        transactionTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
 
         JScrollPane scrollPane = new JScrollPane(transactionTable);
 
+        // A click on a column header sorts by it in the database; a second click reverses it
+        transactionTable.getTableHeader().setReorderingAllowed(false);
+        transactionTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = transactionTable.convertColumnIndexToModel(transactionTable.columnAtPoint(e.getPoint()));
+                sortBy(column);
+            }
+        });
+
+        JPanel controlsPanel = new JPanel(new GridLayout(2, 1));
+        controlsPanel.setOpaque(false);
+        controlsPanel.add(createSearchPanel());
+        controlsPanel.add(createFilterPanel());
+
+        JPanel headerPanel = new JPanel(new BorderLayout(10, 10));
+        headerPanel.setOpaque(false);
+        headerPanel.add(titleLabel, BorderLayout.CENTER);
+        headerPanel.add(controlsPanel, BorderLayout.SOUTH);
+
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         controlPanel.setOpaque(false);
 
-        deleteButton = new JButton("DELETE SELECTED TRANSACTION");
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        controlPanel.add(statusLabel);
+
+        exportButton = new JButton("EXPORT...");
+        exportButton.setFocusPainted(false);
+        exportButton.addActionListener(e -> exportTransactions());
+        controlPanel.add(exportButton);
+
+        deleteButton = new JButton("DELETE SELECTED");
         deleteButton.setBackground(Color.RED);
         deleteButton.setForeground(Color.WHITE);
         deleteButton.setFocusPainted(false);
 
 
-        deleteButton.addActionListener(e -> deleteSelectedTransaction(model));
+        deleteButton.addActionListener(e -> deleteSelectedTransactions());
 
         controlPanel.add(deleteButton);
 
-        add(titleLabel, BorderLayout.NORTH);
+        add(headerPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
         add(controlPanel, BorderLayout.SOUTH);
 
 
-        loadTransactionData(model);
+        hideIDColumn();
 
 
-        hideIDColumn();
+        loadTransactionData();
     }
 
-    /** Hides the actual Transaction ID column (index 1) from the user. */
-    private void hideIDColumn() {
-        if (transactionTable.getColumnModel().getColumnCount() > 1) {
-            transactionTable.getColumnModel().getColumn(1).setMinWidth(0);
-            transactionTable.getColumnModel().getColumn(1).setMaxWidth(0);
-            transactionTable.getColumnModel().getColumn(1).setWidth(0);
-        }
+    private JPanel createSearchPanel() {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.setOpaque(false);
+
+        JLabel searchLabel = new JLabel("Search:");
+        searchLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        searchPanel.add(searchLabel);
+
+        searchField = new JTextField(30);
+        searchField.setFont(new Font("Arial", Font.PLAIN, 14));
+        searchField.setToolTipText("Words from the description or category; the last word may be partial");
+        searchPanel.add(searchField);
+
+        // Results follow the text as it is typed
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> refreshRows());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
+        });
+
+        return searchPanel;
     }
 
-    private void deleteSelectedTransaction(DefaultTableModel model) {
-        int selectedRow = transactionTable.getSelectedRow();
+    private JPanel createFilterPanel() {
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.setOpaque(false);
 
-        if (selectedRow == -1) {
-            JOptionPane.showMessageDialog(this, "Please select a transaction to delete.", "Selection Required", JOptionPane.WARNING_MESSAGE);
-            return;
+        typeFilter = new JComboBox<>(new String[]{"All types", "Income", "Expense"});
+        filterPanel.add(typeFilter);
+
+        categoryFilter = new JComboBox<>();
+        categoryFilter.addItem("All categories");
+        for (String category : TransactionForm.CATEGORIES) {
+            categoryFilter.addItem(category);
         }
+        filterPanel.add(categoryFilter);
+
+        filterPanel.add(new JLabel("From:"));
+        fromDateField = new JTextField(8);
+        fromDateField.setToolTipText("YYYY-MM-DD");
+        filterPanel.add(fromDateField);
+
+        filterPanel.add(new JLabel("To:"));
+        toDateField = new JTextField(8);
+        toDateField.setToolTipText("YYYY-MM-DD");
+        filterPanel.add(toDateField);
+
+        filterPanel.add(new JLabel("Amount ($):"));
+        minAmountField = new JTextField(5);
+        minAmountField.setToolTipText("Minimum");
+        filterPanel.add(minAmountField);
+        filterPanel.add(new JLabel("-"));
+        maxAmountField = new JTextField(5);
+        maxAmountField.setToolTipText("Maximum");
+        filterPanel.add(maxAmountField);
+
+        JButton applyButton = new JButton("FILTER");
+        applyButton.setBackground(primaryGreen);
+        applyButton.setForeground(Color.WHITE);
+        applyButton.setFocusPainted(false);
+        applyButton.addActionListener(e -> applyFilters());
+        filterPanel.add(applyButton);
+
+        JButton clearButton = new JButton("CLEAR");
+        clearButton.setFocusPainted(false);
+        clearButton.addActionListener(e -> clearFilters());
+        filterPanel.add(clearButton);
+
+        return filterPanel;
+    }
 
-        Integer transactionId = (Integer) model.getValueAt(selectedRow, 1);
+    /** Reads the filter controls into a new query; the sort order is kept. */
+    private void applyFilters() {
+        TransactionQuery current = model.getQuery();
+        TransactionQuery query;
+        try {
+            query = new TransactionQuery(
+                    typeFilter.getSelectedIndex() == 0 ? null : (String) typeFilter.getSelectedItem(),
+                    categoryFilter.getSelectedIndex() == 0 ? null : (String) categoryFilter.getSelectedItem(),
+                    parseDate(fromDateField, "From"),
+                    parseDate(toDateField, "To"),
+                    parseAmount(minAmountField, "Minimum amount"),
+                    parseAmount(maxAmountField, "Maximum amount"),
+                    current.getSort(),
+                    current.isDescending());
+        } catch (IllegalArgumentException ex) {
+            showStatus(ex.getMessage(), Color.RED);
+            return;
+        }
 
-        int confirm = JOptionPane.showConfirmDialog(this,
-                "Are you sure you want to delete Transaction ID: " + transactionId + "?",
-                "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        model.setQuery(query);
+        showHistory();
+    }
 
-        if (confirm == JOptionPane.YES_OPTION) {
+    private void clearFilters() {
+        typeFilter.setSelectedIndex(0);
+        categoryFilter.setSelectedIndex(0);
+        fromDateField.setText("");
+        toDateField.setText("");
+        minAmountField.setText("");
+        maxAmountField.setText("");
+        applyFilters();
+    }
 
-            int userId = UserSession.getCurrentUserId();
+    private static LocalDate parseDate(JTextField field, String name) {
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(name + " date must be YYYY-MM-DD.");
+        }
+    }
 
-            String sql = "DELETE FROM transactions WHERE transaction_id = ? AND user_id = ?";
+    private static Double parseAmount(JTextField field, String name) {
+        String text = field.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(name + " must be a number.");
+        }
+    }
 
-            try (Connection conn = dbManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Sorts the history by a column header. A new column starts with the largest or newest
+     * values for amount and date, and alphabetically for text; the same column flips.
+     */
+    private void sortBy(int column) {
+        TransactionQuery.Sort sort = TransactionTableModel.sortFor(column);
+        if (sort == null) {
+            return;
+        }
+        TransactionQuery current = model.getQuery();
+        boolean descending = sort == current.getSort()
+                ? !current.isDescending()
+                : sort == TransactionQuery.Sort.DATE || sort == TransactionQuery.Sort.AMOUNT;
+        model.setQuery(current.withSort(sort, descending));
+
+        // The arrow moves to the new column without rebuilding the columns
+        for (int i = 0; i < transactionTable.getColumnCount(); i++) {
+            int modelColumn = transactionTable.convertColumnIndexToModel(i);
+            transactionTable.getColumnModel().getColumn(i).setHeaderValue(model.getColumnName(modelColumn));
+        }
+        transactionTable.getTableHeader().repaint();
 
-                pstmt.setInt(1, transactionId);
-                pstmt.setInt(2, userId); // Filter by user ID
+        showHistory();
+    }
 
-                int rowsAffected = pstmt.executeUpdate();
+    /** Filters and sorting apply to the history, so a search in progress is cleared first. */
+    private void showHistory() {
+        if (searchField.getText().isEmpty()) {
+            loadTransactionData();
+        } else {
+            // The search box listener reloads the history once the text is gone
+            searchField.setText("");
+        }
+    }
 
-                if (rowsAffected > 0) {
-                    JOptionPane.showMessageDialog(this, "Transaction deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+    /** Re-runs the search or reloads the history, keeping the search text, filters and sort. */
+    @Override
+    public void refreshData() {
+        refreshRows();
+    }
 
+    /** Shows the search results if there is a query, the whole history otherwise. */
+    private void refreshRows() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            searchGeneration++;
+            loadTransactionData();
+        } else {
+            searchTransactions(query);
+        }
+    }
 
-                    loadTransactionData(model);
+    private void searchTransactions(String query) {
+        int requestGeneration = ++searchGeneration;
+        int userId = UserSession.getCurrentUserId();
 
+        DbExecutor.submit(() -> transactions.searchTransactions(userId, query, TransactionTableModel.PAGE_SIZE))
+                .whenCompleteAsync((result, error) -> {
+                    if (requestGeneration != searchGeneration) {
+                        return;
+                    }
+                    if (error != null) {
+                        showStatus("Search failed: " + DbExecutor.rootCause(error).getMessage(), Color.RED);
+                        return;
+                    }
+                    showSearchResult(result);
+                }, SwingUtilities::invokeLater);
+    }
 
-                    parentFrame.refreshDashboard();
-                }
+    private void showSearchResult(SearchResult result) {
+        model.showRows(result.getTransactions());
+        int shown = result.getTransactions().size();
+        if (shown == 0) {
+            showStatus("No matching transactions", textColor);
+        } else if (result.getTotalMatches() > shown) {
+            showStatus(String.format("Best %,d of %,d matches", shown, result.getTotalMatches()), textColor);
+        } else {
+            showStatus(String.format("%,d matches", shown), textColor);
+        }
+    }
 
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Database Error during deletion: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-                e.printStackTrace();
-            }
+    /** Hides the actual Transaction ID column (index 1) from the user. */
+    private void hideIDColumn() {
+        if (transactionTable.getColumnModel().getColumnCount() > TransactionTableModel.ID_COLUMN) {
+            transactionTable.getColumnModel().getColumn(TransactionTableModel.ID_COLUMN).setMinWidth(0);
+            transactionTable.getColumnModel().getColumn(TransactionTableModel.ID_COLUMN).setMaxWidth(0);
+            transactionTable.getColumnModel().getColumn(TransactionTableModel.ID_COLUMN).setWidth(0);
         }
     }
 
-    /** Loads all transaction data from MySQL into the JTable model, sorting chronologically. */
-    private void loadTransactionData(DefaultTableModel model) {
-        model.setRowCount(0);
+    /**
+     * Deletes every selected row in one database transaction. The rows are dropped from
+     * the table in place and the dashboard is refreshed once, whatever the count.
+     */
+    private void deleteSelectedTransactions() {
+        int[] selectedRows = transactionTable.getSelectedRows();
 
-        String[] columnNames = {"No.", "ID", "Type", "Category", "Amount ($)", "Date", "Description"};
-        model.setColumnIdentifiers(columnNames);
+        if (selectedRows.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please select a transaction to delete.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-        int userId = UserSession.getCurrentUserId();
+        List<Integer> transactionIds = new ArrayList<>(selectedRows.length);
+        for (int selectedRow : selectedRows) {
+            TransactionRecord transaction = model.getTransactionAt(transactionTable.convertRowIndexToModel(selectedRow));
+            if (transaction == null) {
+                // The row's page is still being fetched, or was dropped to save memory
+                JOptionPane.showMessageDialog(this,
+                        "Some of the selected transactions are not loaded yet. Scroll through them first, or narrow the history with the filters.",
+                        "Selection Not Loaded", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            transactionIds.add(transaction.getTransactionId());
+        }
 
-        String sql = "SELECT transaction_id, type, category, amount, transaction_date, description FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
+        String question = transactionIds.size() == 1
+                ? "Are you sure you want to delete Transaction ID: " + transactionIds.get(0) + "?"
+                : String.format("Are you sure you want to delete these %,d transactions?", transactionIds.size());
+        int confirm = JOptionPane.showConfirmDialog(this, question, "Confirm Deletion", JOptionPane.YES_NO_OPTION);
 
-        int rowNumber = 1;
+        if (confirm == JOptionPane.YES_OPTION) {
 
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int userId = UserSession.getCurrentUserId();
 
-            pstmt.setInt(1, userId); // Set the user ID filter
+            deleteButton.setEnabled(false);
+            showStatus("Deleting transactions...", textColor);
+            long versionBefore = DataVersion.current();
+
+            DbExecutor.submit(() -> transactions.deleteTransactions(userId, transactionIds))
+                    .whenCompleteAsync((deleted, error) -> {
+                        deleteButton.setEnabled(true);
+                        if (error != null) {
+                            Throwable cause = DbExecutor.rootCause(error);
+                            showStatus("Database Error during deletion: " + cause.getMessage(), Color.RED);
+                            cause.printStackTrace();
+                            return;
+                        }
+
+                        // Rows already deleted elsewhere are gone too, so every selected id leaves the table
+                        transactionTable.clearSelection();
+                        if (!model.removeTransactions(new HashSet<>(transactionIds))) {
+                            // The table moved on while the delete ran
+                            refreshRows();
+                        } else if (DataVersion.current() == versionBefore + 1) {
+                            // The only write since the table was loaded is this delete, which it already shows
+                            parentFrame.markViewCurrent(this, versionBefore, versionBefore + 1);
+                        }
+                        showStatus(deleted.size() == 1
+                                ? "Transaction deleted successfully!"
+                                : String.format("%,d transactions deleted successfully!", deleted.size()), primaryGreen);
+
+                        if (!deleted.isEmpty()) {
+                            parentFrame.reloadDashboardData();
+                        }
+                    }, SwingUtilities::invokeLater);
+        }
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
+    /**
+     * Streams the user's whole history to a file in the background. The file name picks
+     * the format: .csv or .jsonl, with an optional .gz suffix for gzip.
+     */
+    private void exportTransactions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Transactions (.csv, .jsonl, optionally .gz)");
+        chooser.setSelectedFile(new File("transactions.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
 
-                while (rs.next()) {
-                    model.addRow(new Object[]{
+        Path target = chooser.getSelectedFile().toPath();
+        String fileName = target.getFileName().toString();
+        TransactionExporter.Format format = TransactionExporter.Format.forFileName(fileName);
+        boolean gzip = TransactionExporter.isGzipFileName(fileName);
+        int userId = UserSession.getCurrentUserId();
 
-                            rowNumber++,
+        exportButton.setEnabled(false);
+        showStatus("Exporting...", textColor);
+
+        TransactionExporter.ProgressListener progress = rows -> SwingUtilities.invokeLater(() ->
+                showStatus(String.format("Exporting... %,d rows written", rows), textColor));
+
+        DbExecutor.submit(() -> {
+                    try {
+                        return new TransactionExporter().export(userId, target, format, gzip, progress);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .whenCompleteAsync((rows, error) -> {
+                    exportButton.setEnabled(true);
+                    if (error != null) {
+                        Throwable cause = DbExecutor.rootCause(error);
+                        showStatus("Export failed: " + cause.getMessage(), Color.RED);
+                        cause.printStackTrace();
+                        return;
+                    }
+                    showStatus(String.format("Exported %,d transactions to %s", rows, fileName), primaryGreen);
+                }, SwingUtilities::invokeLater);
+    }
 
-                            rs.getInt("transaction_id"),
-                            rs.getString("type"),
-                            rs.getString("category"),
-                            rs.getDouble("amount"),
-                            rs.getDate("transaction_date"),
-                            rs.getString("description")
-                    });
-                }
+    /**
+     * Resets the paged table model to the top of the user's history, filtered and sorted
+     * by the current query. Only the row count is read here; rows arrive page by page as
+     * they become visible.
+     */
+    private void loadTransactionData() {
+        showStatus("Loading transactions...", textColor);
+
+        model.reload().whenComplete((ignored, error) -> {
+            if (error != null) {
+                showLoadError(error);
+            } else if (model.getQuery().isFiltered()) {
+                showStatus(String.format("%,d matching transactions", model.getRowCount()), textColor);
+            } else {
+                showStatus(" ", textColor);
             }
+        });
+    }
 
-            hideIDColumn();
+    private void showLoadError(Throwable error) {
+        showStatus("Error loading reports: " + error.getMessage(), Color.RED);
+        error.printStackTrace();
+    }
 
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error loading reports: " + e.getMessage(),
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+    /** Shows progress or errors inline, so a failing query never blocks the panel with a dialog. */
+    private void showStatus(String message, Color color) {
+        statusLabel.setText(message);
+        statusLabel.setForeground(color);
     }
-}
\ No newline at end of file
+}
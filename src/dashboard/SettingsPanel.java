@@ -1,12 +1,11 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.UserRepository;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 
 public class SettingsPanel extends JPanel {
 
@@ -17,8 +16,9 @@ public class SettingsPanel extends JPanel {
     private JPasswordField oldPasswordField;
     private JPasswordField newPasswordField;
     private JPasswordField confirmPasswordField;
+    private JButton updatePasswordButton;
 
-    private expensetracker.DatabaseManager dbManager = new expensetracker.DatabaseManager();
+    private final UserRepository users = Repositories.users();
     // NOTE: This should be dynamically fetched from UserSession in a real app.
     private String currentUsername = "user1";
 
@@ -114,7 +114,7 @@ public class SettingsPanel extends JPanel {
         panel.add(confirmPasswordField, gbc);
 
         // Update Button
-        JButton updatePasswordButton = new JButton("UPDATE PASSWORD");
+        updatePasswordButton = new JButton("UPDATE PASSWORD");
         updatePasswordButton.setBackground(Color.RED);
         updatePasswordButton.setForeground(Color.WHITE);
         updatePasswordButton.addActionListener(e -> changePassword());
@@ -143,6 +143,9 @@ public class SettingsPanel extends JPanel {
             if (confirm == JOptionPane.YES_OPTION) {
                 // Clears the session and closes the entire application
                 expensetracker.UserSession.clearSession();
+                expensetracker.ColumnarStore.getInstance().close();
+                expensetracker.SearchIndexStore.getInstance().close();
+                expensetracker.BudgetAlertEngine.getInstance().close();
                 parentFrame.dispose();
             }
         });
@@ -171,31 +174,31 @@ public class SettingsPanel extends JPanel {
             return;
         }
 
-        if (dbManager.authenticateUser(currentUsername, oldPass)==-1) {
-            JOptionPane.showMessageDialog(this, "The old password entered is incorrect.", "Authentication Failed", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        String sql = "UPDATE users SET password = ? WHERE username = ?";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, newPass);
-            pstmt.setString(2, currentUsername);
-
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                JOptionPane.showMessageDialog(this, "Password updated successfully! Please log in again.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                oldPasswordField.setText("");
-                newPasswordField.setText("");
-                confirmPasswordField.setText("");
-            }
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Database Error: Could not update password.", "SQL Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+        // Checking the old password and hashing the new one are slow by design: keep them off the EDT
+        updatePasswordButton.setEnabled(false);
+
+        DbExecutor.submit(() -> {
+                    if (users.authenticate(currentUsername, oldPass) == -1) {
+                        return false;
+                    }
+                    return users.updatePassword(currentUsername, newPass);
+                })
+                .whenCompleteAsync((updated, error) -> {
+                    updatePasswordButton.setEnabled(true);
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this, "Database Error: Could not update password.", "SQL Error", JOptionPane.ERROR_MESSAGE);
+                        DbExecutor.rootCause(error).printStackTrace();
+                        return;
+                    }
+
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this, "Password updated successfully! Please log in again.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        oldPasswordField.setText("");
+                        newPasswordField.setText("");
+                        confirmPasswordField.setText("");
+                    } else {
+                        JOptionPane.showMessageDialog(this, "The old password entered is incorrect.", "Authentication Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
     }
 }
\ No newline at end of file
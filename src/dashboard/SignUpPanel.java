@@ -1,11 +1,10 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.UserRepository;
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 
 public class SignUpPanel extends JPanel {
 
@@ -18,7 +17,7 @@ public class SignUpPanel extends JPanel {
     private JTextField emailField;
     private JButton signUpButton;
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    private final UserRepository users = Repositories.users();
 
     private Login parentFrame;
 
@@ -98,32 +97,27 @@ public class SignUpPanel extends JPanel {
             return;
         }
 
-        String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
-
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
-            pstmt.setString(3, email.isEmpty() ? null : email);
-
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                JOptionPane.showMessageDialog(this,
-                        "Account created successfully! Please log in.",
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                // FINAL FIX: Close the SignUpPanel and switch the parent frame back to the Login form
-                parentFrame.switchContent(parentFrame.createLoginFormComponent());
-            }
-
-        } catch (SQLException e) {
-            if (e.getErrorCode() == 1062) { // SQL error code for Duplicate entry (UNIQUE key violation)
-                JOptionPane.showMessageDialog(this, "Username already exists. Please choose another.", "Registration Failed", JOptionPane.ERROR_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Database Error during registration: " + e.getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+        // The password is hashed off the EDT
+        signUpButton.setEnabled(false);
+
+        DbExecutor.submit(() -> users.createUser(username, password, email.isEmpty() ? null : email))
+                .whenCompleteAsync((created, error) -> {
+                    signUpButton.setEnabled(true);
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(this, "Database Error during registration: " + DbExecutor.rootCause(error).getMessage(), "SQL Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+
+                    if (created) {
+                        JOptionPane.showMessageDialog(this,
+                                "Account created successfully! Please log in.",
+                                "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                        // FINAL FIX: Close the SignUpPanel and switch the parent frame back to the Login form
+                        parentFrame.switchContent(parentFrame.createLoginFormComponent());
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Username already exists. Please choose another.", "Registration Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }, SwingUtilities::invokeLater);
     }
 }
\ No newline at end of file
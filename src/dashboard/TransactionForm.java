@@ -1,12 +1,22 @@
 package dashboard;
 
-import expensetracker.DatabaseManager;
+import expensetracker.CsvImporter;
+import expensetracker.DbExecutor;
+import expensetracker.PendingTransaction;
+import expensetracker.RecurringRepository;
+import expensetracker.RecurringScheduler;
+import expensetracker.RecurringTransaction;
+import expensetracker.Repositories;
+import expensetracker.TransactionJournal;
+import expensetracker.TransactionRecord;
 import expensetracker.UserSession;
 import javax.swing.*;
 import java.awt.*;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 public class TransactionForm extends JPanel {
 
@@ -14,14 +24,25 @@ public class TransactionForm extends JPanel {
     private final Color lightGray = new Color(240, 240, 240);
     private final Color textColor = new Color(51, 51, 51);
 
+    /** The categories a transaction can be filed under; the history filter offers the same list. */
+    static final String[] CATEGORIES = {"Groceries", "Salary", "Rent", "Utilities", "Entertainment", "Other"};
+
     private JTextField amountField;
     private JComboBox<String> typeComboBox;
     private JComboBox<String> categoryComboBox;
     private JTextArea descriptionArea;
     private JTextField dateField;
+    private JComboBox<String> repeatComboBox;
+    private JTextField intervalField;
     private JButton saveButton;
+    private JButton importButton;
+    private JLabel statusLabel;
+
+    private final TransactionJournal journal = TransactionJournal.getInstance();
+    private final RecurringRepository recurring = Repositories.recurring();
 
-    private DatabaseManager dbManager = new DatabaseManager();
+    // Indexes into repeatComboBox; the rest follow RecurringTransaction.Frequency
+    private static final String[] REPEAT_OPTIONS = {"Never", "Daily", "Weekly", "Monthly", "Every N days"};
 
     // Reference to the parent Dashboard frame
     private Dashboard parentFrame;
@@ -81,8 +102,7 @@ public class TransactionForm extends JPanel {
         gbc.gridy = 4;
         add(createLabel("Category:"), gbc);
 
-        String[] categories = {"Groceries", "Salary", "Rent", "Utilities", "Entertainment", "Other"};
-        categoryComboBox = new JComboBox<>(categories);
+        categoryComboBox = new JComboBox<>(CATEGORIES);
         categoryComboBox.setFont(new Font("Arial", Font.PLAIN, 14));
         gbc.gridx = 1;
         add(categoryComboBox, gbc);
@@ -97,9 +117,29 @@ public class TransactionForm extends JPanel {
         gbc.gridx = 1;
         add(dateField, gbc);
 
-        // --- Description ---
+        // --- Repeats ---
         gbc.gridx = 0;
         gbc.gridy = 6;
+        add(createLabel("Repeats:"), gbc);
+
+        repeatComboBox = new JComboBox<>(REPEAT_OPTIONS);
+        repeatComboBox.setFont(new Font("Arial", Font.PLAIN, 14));
+        intervalField = new JTextField(4);
+        intervalField.setFont(new Font("Arial", Font.PLAIN, 14));
+        intervalField.setEnabled(false);
+        repeatComboBox.addActionListener(e -> intervalField.setEnabled(repeatComboBox.getSelectedIndex() == REPEAT_OPTIONS.length - 1));
+
+        JPanel repeatPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        repeatPanel.setOpaque(false);
+        repeatPanel.add(repeatComboBox);
+        repeatPanel.add(intervalField);
+        repeatPanel.add(new JLabel("days"));
+        gbc.gridx = 1;
+        add(repeatPanel, gbc);
+
+        // --- Description ---
+        gbc.gridx = 0;
+        gbc.gridy = 7;
         add(createLabel("Description:"), gbc);
 
         descriptionArea = new JTextArea(3, 15);
@@ -112,7 +152,7 @@ public class TransactionForm extends JPanel {
         add(scrollPane, gbc);
 
         // --- Save Button ---
-        gbc.gridy = 7;
+        gbc.gridy = 8;
         gbc.gridx = 0;
         gbc.gridwidth = 2;
         gbc.weighty = 0.0;
@@ -129,6 +169,20 @@ public class TransactionForm extends JPanel {
         saveButton.addActionListener(e -> saveTransaction());
 
         add(saveButton, gbc);
+
+        // --- Bulk Import Button ---
+        importButton = new JButton("IMPORT FROM CSV...");
+        importButton.setFont(new Font("Arial", Font.PLAIN, 14));
+        importButton.setFocusPainted(false);
+        importButton.addActionListener(e -> importCsv());
+        gbc.gridy = 9;
+        gbc.insets = new Insets(0, 10, 10, 10);
+        add(importButton, gbc);
+
+        statusLabel = new JLabel(" ", SwingConstants.CENTER);
+        statusLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        gbc.gridy = 10;
+        add(statusLabel, gbc);
     }
 
     private JLabel createLabel(String text) {
@@ -144,10 +198,10 @@ public class TransactionForm extends JPanel {
         String type = (String) typeComboBox.getSelectedItem();
         String category = (String) categoryComboBox.getSelectedItem();
         String description = descriptionArea.getText();
-        String date = dateField.getText();
+        String dateText = dateField.getText();
 
         // 1. Input Validation
-        if (amountField.getText().isEmpty() || date.isEmpty()) {
+        if (amountField.getText().isEmpty() || dateText.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Amount and Date are required.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
@@ -160,43 +214,179 @@ public class TransactionForm extends JPanel {
             return;
         }
 
-        // 2. Core Logic
-        int userId = UserSession.getCurrentUserId(); // Get the active user's ID
-        String sql = "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+        // Checked here because a journaled save is acknowledged before MySQL could reject it
+        if (!TransactionRecord.isStorableAmount(amount)) {
+            JOptionPane.showMessageDialog(this, "Amount must be a number below 10,000,000,000.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (description.length() > TransactionRecord.MAX_DESCRIPTION_LENGTH) {
+            JOptionPane.showMessageDialog(this, "Description must be at most " + TransactionRecord.MAX_DESCRIPTION_LENGTH + " characters.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-        try (Connection conn = dbManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dateText);
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter the date as YYYY-MM-DD.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-            if (conn == null) {
-                JOptionPane.showMessageDialog(this, "Database connection is unavailable.", "Error", JOptionPane.ERROR_MESSAGE);
+        int repeat = repeatComboBox.getSelectedIndex();
+        int intervalDays = 0;
+        if (repeat == REPEAT_OPTIONS.length - 1) {
+            try {
+                intervalDays = Integer.parseInt(intervalField.getText().trim());
+            } catch (NumberFormatException ex) {
+                intervalDays = 0;
+            }
+            if (intervalDays < 1) {
+                JOptionPane.showMessageDialog(this, "Please enter how many days apart the transaction repeats.", "Input Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+        }
 
-            // Set the parameters for the SQL query
-            pstmt.setInt(1, userId); // FILTER: Secure the transaction by user ID
-            pstmt.setString(2, type);
-            pstmt.setDouble(3, amount);
-            pstmt.setString(4, category);
-            pstmt.setString(5, description);
-            pstmt.setString(6, date);
-
-            int rowsAffected = pstmt.executeUpdate();
+        // 2. Core Logic: the save is acknowledged once it is in the local journal; the INSERT happens behind it
+        int userId = UserSession.getCurrentUserId(); // Get the active user's ID
 
-            if (rowsAffected > 0) {
-                JOptionPane.showMessageDialog(this, "Transaction saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+        if (repeat > 0) {
+            saveRecurring(userId, type, amount, category, description, date,
+                    RecurringTransaction.Frequency.values()[repeat - 1], intervalDays);
+            return;
+        }
 
-                // Clear fields after successful save
-                amountField.setText("");
-                descriptionArea.setText("");
-                dateField.setText("");
+        saveButton.setEnabled(false);
+        showStatus("Saving...", textColor);
+
+        DbExecutor.submit(() -> journal.save(userId, type, amount, category, description, date))
+                .whenCompleteAsync((pending, error) -> {
+                    saveButton.setEnabled(true);
+                    if (error != null) {
+                        Throwable cause = DbExecutor.rootCause(error);
+                        showStatus("Database Error: " + cause.getMessage(), Color.RED);
+                        cause.printStackTrace();
+                        return;
+                    }
+
+                    // Stays on the form, so the confirmation is seen and the next entry can follow
+                    showStatus("Transaction saved successfully!", primaryGreen);
+
+                    // Clear fields after successful save
+                    amountField.setText("");
+                    descriptionArea.setText("");
+                    dateField.setText("");
+
+                    // The totals only include the new row once the flusher has committed it
+                    pending.whenStored().thenAcceptAsync(stored -> {
+                        parentFrame.reloadDashboardData();
+                        if (stored == null) {
+                            showStatus("Transaction was not saved.", Color.RED);
+                            showNotStored(pending);
+                        }
+                    }, SwingUtilities::invokeLater);
+                }, SwingUtilities::invokeLater);
+    }
 
-                // FINAL FIX: Tell the parent Dashboard to refresh its totals
-                parentFrame.refreshDashboard();
-            }
+    /**
+     * Stores a recurring template starting at the entered date, then writes the
+     * occurrences already due (the first one, or a whole backlog for a past start date).
+     */
+    private void saveRecurring(int userId, String type, double amount, String category, String description,
+                               LocalDate startDate, RecurringTransaction.Frequency frequency, int intervalDays) {
+        saveButton.setEnabled(false);
+        showStatus("Saving...", textColor);
+
+        DbExecutor.submit(() -> {
+                    recurring.createRecurring(userId, type, amount, category, description, frequency, intervalDays, startDate);
+                    return RecurringScheduler.getInstance().materializeDue(LocalDate.now());
+                })
+                .whenCompleteAsync((written, error) -> {
+                    saveButton.setEnabled(true);
+                    if (error != null) {
+                        Throwable cause = DbExecutor.rootCause(error);
+                        showStatus("Database Error: " + cause.getMessage(), Color.RED);
+                        cause.printStackTrace();
+                        return;
+                    }
+
+                    showStatus(written == 0
+                            ? "Recurring transaction saved; the first entry is added on " + startDate + "."
+                            : String.format("Recurring transaction saved; %,d entries added up to today.", written), primaryGreen);
+
+                    amountField.setText("");
+                    descriptionArea.setText("");
+                    dateField.setText("");
+                    repeatComboBox.setSelectedIndex(0);
+                    intervalField.setText("");
+
+                    // Stays on the form, so the user sees how many entries were backfilled
+                    parentFrame.reloadDashboardData();
+                }, SwingUtilities::invokeLater);
+    }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database Error: " + ex.getMessage() + ". Check your date format (YYYY-MM-DD).", "SQL Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
+    /**
+     * Imports a CSV file of transactions (type,amount,category,date,description) in the
+     * background, reporting progress under the buttons.
+     */
+    private void importCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Transactions from CSV");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+
+        Path csvFile = chooser.getSelectedFile().toPath();
+        int userId = UserSession.getCurrentUserId();
+
+        importButton.setEnabled(false);
+        showStatus("Importing " + csvFile.getFileName() + "...", textColor);
+
+        CsvImporter.ProgressListener progress = (read, imported, failed) -> SwingUtilities.invokeLater(() ->
+                showStatus(String.format("Importing... %,d rows read, %,d imported, %,d rejected", read, imported, failed), textColor));
+
+        DbExecutor.submit(() -> {
+                    try {
+                        return new CsvImporter().importFile(userId, csvFile, progress);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .whenCompleteAsync((report, error) -> {
+                    importButton.setEnabled(true);
+                    if (error != null) {
+                        Throwable cause = DbExecutor.rootCause(error);
+                        showStatus("Import failed: " + cause.getMessage(), Color.RED);
+                        cause.printStackTrace();
+                        return;
+                    }
+
+                    if (report.getRowsFailed() == 0) {
+                        showStatus(String.format("Imported %,d transactions.", report.getRowsImported()), primaryGreen);
+                    } else {
+                        showStatus(String.format("Imported %,d transactions, %,d rejected (see %s). First: %s",
+                                report.getRowsImported(), report.getRowsFailed(),
+                                report.getErrorFile().getFileName(), report.getFirstErrors().get(0)), Color.RED);
+                    }
+                    // The importer invalidated the ledger cache, so the next dashboard visit re-reads the totals
+                }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * The journal acknowledged the save, but the database later refused the row. Shown as a
+     * dialog, because by then the user may be on another screen.
+     */
+    private void showNotStored(PendingTransaction pending) {
+        String what = String.format("The %s of %.2f (%s, %s) could not be stored in the database",
+                pending.getType().toLowerCase(), pending.getAmount(), pending.getCategory(), pending.getDate());
+        String message = pending.isRejected()
+                ? what + " and was not saved.\nIt was set aside in " + journal.getRejectedPath() + "."
+                : what + " and was not saved.";
+        JOptionPane.showMessageDialog(parentFrame, message, "Transaction Not Saved", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /** Shows progress or errors under the save button instead of in a blocking dialog. */
+    private void showStatus(String message, Color color) {
+        statusLabel.setText(message);
+        statusLabel.setForeground(color);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,289 @@
+package dashboard;
+
+import expensetracker.DbExecutor;
+import expensetracker.TransactionQuery;
+import expensetracker.TransactionRecord;
+import expensetracker.TransactionRepository;
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Table model for the transaction history that only holds the pages the user is
+ * looking at. Pages are fetched on demand from the database executor as the table
+ * asks for their rows, the next page is prefetched in the background, and only the
+ * most recently used pages are kept, so memory stays flat however long the history is.
+ *
+ * All state is touched on the EDT only; fetch results are published back with invokeLater.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+
+    static final int ID_COLUMN = 1;
+    static final int TYPE_COLUMN = 2;
+    static final int CATEGORY_COLUMN = 3;
+    static final int AMOUNT_COLUMN = 4;
+    static final int DATE_COLUMN = 5;
+    static final int PAGE_SIZE = 200;
+
+    private static final String[] COLUMN_NAMES = {"No.", "ID", "Type", "Category", "Amount ($)", "Date", "Description"};
+    private static final int MAX_CACHED_PAGES = 10;
+
+    private final TransactionRepository transactions;
+    private final int userId;
+    private final Consumer<Throwable> errorHandler;
+
+    private TransactionQuery query = TransactionQuery.ALL;
+    private int rowCount = 0;
+    // Bumped by reload(), so answers to requests made before it are dropped.
+    private int generation = 0;
+
+    private final Map<Integer, List<TransactionRecord>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<TransactionRecord>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Last row of every page seen so far: the keyset cursor for the page after it.
+    private final Map<Integer, TransactionRecord> pageEndKeys = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+
+    public TransactionTableModel(TransactionRepository transactions, int userId, Consumer<Throwable> errorHandler) {
+        this.transactions = transactions;
+        this.userId = userId;
+        this.errorHandler = errorHandler;
+    }
+
+    public TransactionQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Switches to another filter or sort order. Takes effect with the next {@link #reload()}.
+     */
+    public void setQuery(TransactionQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * Drops every loaded page and re-reads the row count.
+     * @return A future completed on the EDT once the new count is shown.
+     */
+    public CompletableFuture<Void> reload() {
+        int requestGeneration = ++generation;
+        pages.clear();
+        pageEndKeys.clear();
+        pendingPages.clear();
+
+        TransactionQuery requestQuery = query;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        DbExecutor.submit(() -> transactions.countTransactions(userId, requestQuery))
+                .whenCompleteAsync((count, error) -> {
+                    if (requestGeneration != generation) {
+                        done.complete(null);
+                        return;
+                    }
+                    if (error != null) {
+                        done.completeExceptionally(DbExecutor.rootCause(error));
+                        return;
+                    }
+                    rowCount = count;
+                    fireTableDataChanged();
+                    done.complete(null);
+                }, SwingUtilities::invokeLater);
+        return done;
+    }
+
+    /**
+     * Shows a fixed list of rows, such as search results, instead of the paged history.
+     * {@link #reload()} goes back to the history.
+     * @param rows At most {@link #PAGE_SIZE} rows, so they fit in the one page kept.
+     */
+    public void showRows(List<TransactionRecord> rows) {
+        ++generation;
+        pages.clear();
+        pageEndKeys.clear();
+        pendingPages.clear();
+
+        pages.put(0, rows);
+        rowCount = rows.size();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Takes deleted rows out of the loaded pages without going back to the database.
+     * The rows after them move up; a page left with a gap at its end is dropped and
+     * fetched again when it is next shown.
+     * @return false if a row was not in a loaded page, so only {@link #reload()} can place the rest.
+     */
+    public boolean removeTransactions(Set<Integer> transactionIds) {
+        List<Integer> removedRows = new ArrayList<>();
+        for (Map.Entry<Integer, List<TransactionRecord>> page : pages.entrySet()) {
+            List<TransactionRecord> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (transactionIds.contains(rows.get(i).getTransactionId())) {
+                    removedRows.add(page.getKey() * PAGE_SIZE + i);
+                }
+            }
+        }
+        if (removedRows.size() != transactionIds.size()) {
+            return false;
+        }
+        Collections.sort(removedRows);
+
+        // Answers to fetches made before the shift would land at the old positions
+        ++generation;
+        pendingPages.clear();
+
+        Map<Integer, TransactionRecord[]> shifted = new TreeMap<>();
+        Map<Integer, Integer> filled = new HashMap<>();
+        for (Map.Entry<Integer, List<TransactionRecord>> page : pages.entrySet()) {
+            List<TransactionRecord> rows = page.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                int oldIndex = page.getKey() * PAGE_SIZE + i;
+                int position = Collections.binarySearch(removedRows, oldIndex);
+                if (position >= 0) {
+                    continue;
+                }
+                // -position - 1 is the number of removed rows above this one
+                int newIndex = oldIndex - (-position - 1);
+                shifted.computeIfAbsent(newIndex / PAGE_SIZE, key -> new TransactionRecord[PAGE_SIZE])[newIndex % PAGE_SIZE] = rows.get(i);
+                filled.merge(newIndex / PAGE_SIZE, 1, Integer::sum);
+            }
+        }
+
+        rowCount -= removedRows.size();
+        pages.clear();
+        pageEndKeys.clear();
+        for (Map.Entry<Integer, TransactionRecord[]> page : shifted.entrySet()) {
+            int pageIndex = page.getKey();
+            int expected = Math.min(PAGE_SIZE, rowCount - pageIndex * PAGE_SIZE);
+            if (filled.get(pageIndex) == expected) {
+                List<TransactionRecord> rows = Arrays.asList(Arrays.copyOf(page.getValue(), expected));
+                pages.put(pageIndex, rows);
+                pageEndKeys.put(pageIndex, rows.get(expected - 1));
+            }
+        }
+        fireTableDataChanged();
+        return true;
+    }
+
+    /** @return The loaded row at a table index, or null if its page is not in memory. */
+    public TransactionRecord getTransactionAt(int rowIndex) {
+        List<TransactionRecord> page = pages.get(rowIndex / PAGE_SIZE);
+        int offset = rowIndex % PAGE_SIZE;
+        return (page == null || offset >= page.size()) ? null : page.get(offset);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    /** The column name, with an arrow on the column the rows are sorted by. */
+    @Override
+    public String getColumnName(int column) {
+        TransactionQuery.Sort sort = sortFor(column);
+        if (sort != null && sort == query.getSort()) {
+            return COLUMN_NAMES[column] + (query.isDescending() ? " \u25BC" : " \u25B2");
+        }
+        return COLUMN_NAMES[column];
+    }
+
+    /** The sort a click on a column header selects, or null if the column is not sortable. */
+    static TransactionQuery.Sort sortFor(int column) {
+        switch (column) {
+            case TYPE_COLUMN: return TransactionQuery.Sort.TYPE;
+            case CATEGORY_COLUMN: return TransactionQuery.Sort.CATEGORY;
+            case AMOUNT_COLUMN: return TransactionQuery.Sort.AMOUNT;
+            case DATE_COLUMN: return TransactionQuery.Sort.DATE;
+            default: return null;
+        }
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (columnIndex == 0) {
+            return rowIndex + 1;
+        }
+
+        int pageIndex = rowIndex / PAGE_SIZE;
+        List<TransactionRecord> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex, true);
+            return columnIndex == 2 ? "Loading..." : null;
+        }
+
+        int offset = rowIndex % PAGE_SIZE;
+        if (offset >= page.size()) {
+            return null;
+        }
+
+        TransactionRecord row = page.get(offset);
+        switch (columnIndex) {
+            case 1: return row.getTransactionId();
+            case 2: return row.getType();
+            case 3: return row.getCategory();
+            case 4: return row.getAmount();
+            case 5: return row.getDate();
+            case 6: return row.getDescription();
+            default: return null;
+        }
+    }
+
+    private void requestPage(int pageIndex, boolean prefetchNext) {
+        if (pageIndex * PAGE_SIZE >= rowCount || pages.containsKey(pageIndex) || !pendingPages.add(pageIndex)) {
+            return;
+        }
+
+        int requestGeneration = generation;
+        TransactionQuery requestQuery = query;
+        TransactionRecord cursor = pageIndex == 0 ? null : pageEndKeys.get(pageIndex - 1);
+        boolean useKeyset = pageIndex == 0 || cursor != null;
+
+        DbExecutor.submit(() -> useKeyset
+                        ? transactions.loadTransactionPage(userId, requestQuery, cursor, PAGE_SIZE)
+                        : transactions.loadTransactionPageAt(userId, requestQuery, pageIndex * PAGE_SIZE, PAGE_SIZE))
+                .whenCompleteAsync((rows, error) -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    pendingPages.remove(pageIndex);
+                    if (error != null) {
+                        errorHandler.accept(DbExecutor.rootCause(error));
+                        return;
+                    }
+
+                    pages.put(pageIndex, rows);
+                    if (!rows.isEmpty()) {
+                        pageEndKeys.put(pageIndex, rows.get(rows.size() - 1));
+                    }
+
+                    int firstRow = pageIndex * PAGE_SIZE;
+                    int lastRow = Math.min(firstRow + PAGE_SIZE, rowCount) - 1;
+                    if (lastRow >= firstRow) {
+                        fireTableRowsUpdated(firstRow, lastRow);
+                    }
+
+                    // Read ahead so scrolling down rarely shows placeholders
+                    if (prefetchNext) {
+                        requestPage(pageIndex + 1, false);
+                    }
+                }, SwingUtilities::invokeLater);
+    }
+}
@@ -0,0 +1,176 @@
+package dashboard;
+
+import expensetracker.DbExecutor;
+import expensetracker.Repositories;
+import expensetracker.TransactionRepository;
+import expensetracker.TrendBucket;
+import expensetracker.TrendData;
+import expensetracker.UserSession;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.time.LocalDate;
+import java.util.Set;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.TimeTableXYDataset;
+
+public class TrendsPanel extends JPanel implements DataView {
+
+    private final Color textColor = new Color(51, 51, 51);
+
+    // Closer than this and neighbouring points blur into one another
+    private static final int MIN_POINT_SPACING_PX = 4;
+
+    private final TransactionRepository transactions = Repositories.transactions();
+    private final JFreeChart incomeExpenseChart;
+    private final JFreeChart categoryChart;
+    private final ChartPanel incomeExpensePanel;
+    private final JLabel statusLabel;
+
+    private TrendData trends;
+    // The bucket widths on screen, so a resize only rebuilds a dataset when the width changes
+    private TrendBucket incomeExpenseBucket;
+    private TrendBucket categoryBucket;
+
+    public TrendsPanel() {
+        setLayout(new BorderLayout(10, 10));
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("Trends", SwingConstants.CENTER);
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        titleLabel.setForeground(textColor);
+        add(titleLabel, BorderLayout.NORTH);
+
+        incomeExpenseChart = ChartFactory.createTimeSeriesChart(
+                "Income vs. Expenses", "Month", "Amount ($)", new TimeSeriesCollection(), true, true, false);
+        categoryChart = ChartFactory.createStackedXYAreaChart(
+                "Expenses by Category", "Month", "Amount ($)", new TimeTableXYDataset(),
+                PlotOrientation.VERTICAL, true, true, false);
+        categoryChart.getXYPlot().setDomainAxis(new DateAxis("Month"));
+        incomeExpenseChart.getPlot().setNoDataMessage("Loading...");
+        categoryChart.getPlot().setNoDataMessage("Loading...");
+
+        incomeExpensePanel = new ChartPanel(incomeExpenseChart);
+        JPanel chartsPanel = new JPanel(new GridLayout(2, 1, 0, 10));
+        chartsPanel.setOpaque(false);
+        chartsPanel.add(incomeExpensePanel);
+        chartsPanel.add(new ChartPanel(categoryChart));
+        add(chartsPanel, BorderLayout.CENTER);
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(Color.RED);
+        add(statusLabel, BorderLayout.SOUTH);
+
+        // A wider chart has room for finer buckets
+        incomeExpensePanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                showTrends();
+            }
+        });
+
+        loadTrends();
+    }
+
+    @Override
+    public void refreshData() {
+        loadTrends();
+    }
+
+    /** Reads the rollups on the database executor; the charts fill in when they arrive. */
+    private void loadTrends() {
+        int userId = UserSession.getCurrentUserId();
+
+        DbExecutor.submit(() -> transactions.loadTrends(userId))
+                .whenCompleteAsync((loaded, error) -> {
+                    if (error != null) {
+                        String message = DbExecutor.rootCause(error).getMessage();
+                        System.err.println("Error loading trends: " + message);
+                        incomeExpenseChart.getPlot().setNoDataMessage("No data available");
+                        categoryChart.getPlot().setNoDataMessage("No data available");
+                        statusLabel.setText("Could not load trends: " + message);
+                        return;
+                    }
+
+                    trends = loaded;
+                    // New figures: rebuild the datasets even if the bucket widths are unchanged
+                    incomeExpenseBucket = null;
+                    categoryBucket = null;
+                    incomeExpenseChart.getPlot().setNoDataMessage("No data available");
+                    categoryChart.getPlot().setNoDataMessage("No data available");
+                    showTrends();
+                }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Fills the charts with the finest buckets that still fit the chart width, e.g. days
+     * for a few months of history and quarters or years for a decade.
+     */
+    private void showTrends() {
+        if (trends == null || trends.isEmpty() || incomeExpensePanel.getWidth() == 0) {
+            return;
+        }
+
+        int maxPoints = Math.max(12, incomeExpensePanel.getWidth() / MIN_POINT_SPACING_PX);
+        LocalDate first = trends.getFirstDay();
+        LocalDate last = trends.getLastDay();
+
+        TrendBucket bucket = TrendBucket.fit(first, last, maxPoints, TrendBucket.DAY);
+        if (bucket != incomeExpenseBucket) {
+            incomeExpenseBucket = bucket;
+            incomeExpenseChart.getXYPlot().setDataset(createIncomeExpenseDataset(bucket));
+            incomeExpenseChart.getXYPlot().getDomainAxis().setLabel(bucket.getLabel());
+        }
+
+        // Categories are only rolled up per month
+        bucket = TrendBucket.fit(first, last, maxPoints, TrendBucket.MONTH);
+        if (bucket != categoryBucket) {
+            categoryBucket = bucket;
+            categoryChart.getXYPlot().setDataset(createCategoryDataset(bucket));
+            categoryChart.getXYPlot().getDomainAxis().setLabel(bucket.getLabel());
+        }
+    }
+
+    private TimeSeriesCollection createIncomeExpenseDataset(TrendBucket bucket) {
+        TimeSeries income = new TimeSeries("Income");
+        TimeSeries expenses = new TimeSeries("Expenses");
+
+        // Built off-screen, so the per-point change events are skipped
+        trends.getIncomeAndExpenses(bucket).forEach((start, sums) -> {
+            income.add(toDay(start), sums[0], false);
+            expenses.add(toDay(start), sums[1], false);
+        });
+
+        TimeSeriesCollection dataset = new TimeSeriesCollection();
+        dataset.addSeries(income);
+        dataset.addSeries(expenses);
+        return dataset;
+    }
+
+    private TimeTableXYDataset createCategoryDataset(TrendBucket bucket) {
+        TimeTableXYDataset dataset = new TimeTableXYDataset();
+        Set<String> categories = trends.getExpenseCategories();
+
+        // A stacked area needs every category in every bucket, so gaps are filled with 0
+        trends.getExpensesByCategory(bucket).forEach((start, byCategory) -> {
+            Day day = toDay(start);
+            for (String category : categories) {
+                dataset.add(day, byCategory.getOrDefault(category, 0.0), category, false);
+            }
+        });
+        return dataset;
+    }
+
+    private static Day toDay(LocalDate date) {
+        return new Day(date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+    }
+}
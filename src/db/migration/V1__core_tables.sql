@@ -0,0 +1,30 @@
+-- Core tables the application has always assumed. IF NOT EXISTS keeps this a no-op
+-- on databases that were created by hand before migrations existed.
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NULL,
+    CONSTRAINT uq_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    amount DECIMAL(12,2) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    description VARCHAR(500) NULL,
+    transaction_date DATE NOT NULL,
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    budget_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    monthly_limit DECIMAL(12,2) NOT NULL,
+    CONSTRAINT uq_budgets_user_category UNIQUE (user_id, category),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+-- Composite indexes matched to the hot predicates. Each one leads with user_id
+-- because every query is scoped to the logged-in user.
+
+-- Transaction history: WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC,
+-- including the keyset predicate on (transaction_date, transaction_id).
+CREATE INDEX idx_transactions_user_date ON transactions (user_id, transaction_date, transaction_id);
+
+-- Totals by type and the per-category breakdown (rollup rebuilds, exports):
+-- covering, so the sums never touch the table rows.
+CREATE INDEX idx_transactions_user_type ON transactions (user_id, type, category, amount);
+
+-- Category spend over a date range (budget month, trends).
+CREATE INDEX idx_transactions_user_category_date ON transactions (user_id, category, transaction_date, type, amount);
+
+-- Login: WHERE username = ? AND password = ?, answered from the index alone.
+CREATE INDEX idx_users_username_password ON users (username, password);
@@ -0,0 +1,23 @@
+-- Per-user monthly rollup maintained by MonthlyRollup on every insert and delete.
+-- year_month holds 'YYYY-MM' and is a reserved word in MySQL, hence the backticks.
+
+CREATE TABLE IF NOT EXISTS monthly_category_totals (
+    user_id INT NOT NULL,
+    `year_month` CHAR(7) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    transaction_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, `year_month`, category, type)
+);
+
+-- Backfill from the existing history (replaces anything a manual rebuild left behind).
+-- Grouped by the selected month expression: H2 rejects GROUP BY YEAR(), MONTH() as soon as
+-- one group holds transactions from two different days.
+DELETE FROM monthly_category_totals;
+
+INSERT INTO monthly_category_totals (user_id, `year_month`, category, type, total, transaction_count)
+SELECT user_id, CONCAT(YEAR(transaction_date), '-', LPAD(MONTH(transaction_date), 2, '0')),
+       category, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, CONCAT(YEAR(transaction_date), '-', LPAD(MONTH(transaction_date), 2, '0')), category, type;
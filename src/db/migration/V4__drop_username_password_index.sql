@@ -0,0 +1,4 @@
+-- Passwords are now salted hashes verified in the application, so login looks users up
+-- by username alone (uq_users_username). The (username, password) index from V2 is unused.
+
+ALTER TABLE users DROP INDEX idx_users_username_password;
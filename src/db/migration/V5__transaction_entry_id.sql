@@ -0,0 +1,7 @@
+-- Saves are journaled on the client and written behind. Each journal entry carries a
+-- client-generated id, so replaying the journal after a crash cannot store a row twice.
+-- Rows from imports and older clients leave it NULL, which the unique key allows.
+
+ALTER TABLE transactions ADD COLUMN entry_id CHAR(36) NULL;
+
+CREATE UNIQUE INDEX uq_transactions_entry_id ON transactions (entry_id);
@@ -0,0 +1,42 @@
+-- Change tracking for the offline-first replica (see ReplicaSync). The same script runs on
+-- the central MySQL database and on every local replica.
+
+-- Transactions are never edited, only inserted and deleted. updated_at is stamped by the
+-- database that stores the row, so replicas can pull what is new since their last sync.
+ALTER TABLE transactions ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_transactions_user_updated ON transactions (user_id, updated_at, transaction_id);
+
+-- Every row needs a global identity to be matched across databases.
+UPDATE transactions SET entry_id = UUID() WHERE entry_id IS NULL;
+
+-- A deleted transaction leaves its entry_id behind, so replicas can delete their copy.
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    entry_id CHAR(36) NOT NULL PRIMARY KEY,
+    user_id INT NOT NULL,
+    deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE INDEX idx_sync_tombstones_user_deleted ON sync_tombstones (user_id, deleted_at);
+
+-- Budgets are edited in place. version counts the edits accepted by the central database
+-- and detects conflicting edits; updated_at is the edit time in epoch milliseconds and
+-- decides which of two conflicting edits wins.
+ALTER TABLE budgets ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+ALTER TABLE budgets ADD COLUMN updated_at BIGINT NOT NULL DEFAULT 0;
+
+-- Replica only: local changes not yet pushed, oldest first, and how far each user was pulled.
+CREATE TABLE IF NOT EXISTS replica_outbox (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    entry_key VARCHAR(100) NOT NULL,
+    base_version INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS replica_state (
+    user_id INT NOT NULL PRIMARY KEY,
+    transactions_pulled_at TIMESTAMP(3) NULL,
+    tombstones_pulled_at TIMESTAMP(3) NULL
+);
@@ -0,0 +1,20 @@
+-- Per-user daily rollup for the trends view, maintained by MonthlyRollup next to
+-- monthly_category_totals. One row per (day, type) keeps decade-long histories to a few
+-- thousand rows; the per-category trend reads the monthly rollup instead.
+
+CREATE TABLE IF NOT EXISTS daily_totals (
+    user_id INT NOT NULL,
+    txn_day DATE NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    transaction_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, txn_day, type)
+);
+
+-- Backfill from the existing history (replaces anything a manual rebuild left behind).
+DELETE FROM daily_totals;
+
+INSERT INTO daily_totals (user_id, txn_day, type, total, transaction_count)
+SELECT user_id, transaction_date, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY user_id, transaction_date, type;
@@ -0,0 +1,10 @@
+-- Indexes for the filtered and sorted transaction history (TransactionQuery).
+-- Category filters and date ranges already use idx_transactions_user_category_date and
+-- idx_transactions_user_date; these cover the remaining sorts and the type filter, so
+-- each page is an index range read that stops after LIMIT rows.
+
+-- History sorted by amount, and amount-range filters
+CREATE INDEX idx_transactions_user_amount ON transactions (user_id, amount, transaction_id);
+
+-- Income-only or expense-only history, newest first
+CREATE INDEX idx_transactions_user_type_date ON transactions (user_id, type, transaction_date, transaction_id);
@@ -0,0 +1,24 @@
+-- Templates for transactions that repeat (rent, salary, utilities), materialized into
+-- the transactions table by RecurringScheduler. next_date is the first occurrence not
+-- yet written; the scheduler advances it in the same database transaction as the
+-- inserts, so every occurrence is written exactly once.
+
+CREATE TABLE IF NOT EXISTS recurring_transactions (
+    recurring_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    amount DECIMAL(12,2) NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    description VARCHAR(500) NULL,
+    frequency VARCHAR(10) NOT NULL,
+    interval_days INT NOT NULL DEFAULT 0,
+    start_date DATE NOT NULL,
+    next_date DATE NOT NULL,
+    CONSTRAINT fk_recurring_user FOREIGN KEY (user_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
+-- The scheduler's scan for due templates across all users
+CREATE INDEX idx_recurring_next_date ON recurring_transactions (next_date);
+
+-- The recurring list of one user
+CREATE INDEX idx_recurring_user ON recurring_transactions (user_id, recurring_id);
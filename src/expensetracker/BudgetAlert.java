@@ -0,0 +1,50 @@
+package expensetracker;
+
+import java.time.YearMonth;
+
+/**
+ * A category's month-to-date spend reaching a share of its budget, as raised by
+ * {@link BudgetAlertEngine}.
+ */
+public class BudgetAlert {
+
+    private final int userId;
+    private final YearMonth month;
+    private final String category;
+    private final int percent;
+    private final double spent;
+    private final double monthlyLimit;
+
+    public BudgetAlert(int userId, YearMonth month, String category, int percent, double spent, double monthlyLimit) {
+        this.userId = userId;
+        this.month = month;
+        this.category = category;
+        this.percent = percent;
+        this.spent = spent;
+        this.monthlyLimit = monthlyLimit;
+    }
+
+    public int getUserId() { return userId; }
+
+    public YearMonth getMonth() { return month; }
+
+    public String getCategory() { return category; }
+
+    /** The threshold that was reached, e.g. 80 or 100. */
+    public int getPercent() { return percent; }
+
+    public double getSpent() { return spent; }
+
+    public double getMonthlyLimit() { return monthlyLimit; }
+
+    /** Whether the whole limit has been spent; {@link BudgetStatus#isExceeded} needs it passed. */
+    public boolean isLimitReached() {
+        return percent >= 100;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s budget %s: $%,.2f of $%,.2f spent this month",
+                category, isLimitReached() ? "reached" : percent + "% used", spent, monthlyLimit);
+    }
+}
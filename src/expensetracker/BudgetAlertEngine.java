@@ -0,0 +1,260 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the logged-in user's month-to-date spend per category next to their budgets, so
+ * budget alerts are raised the moment a write crosses a threshold instead of when the
+ * budgets screen next runs its query. Spend and limits are read once after login, from
+ * the monthly rollup and the budgets table; after that every insert and delete updates
+ * one map entry, held in a {@link SessionStore} like the columnar ledger.
+ *
+ * An alert is raised when a category's spend reaches one of
+ * {@code -Dbudgetbuddy.budgetAlerts.percents} of its limit (80 and 100 by default) going
+ * up. Each threshold alerts once; a delete that drops the spend back below it re-arms it.
+ * Start with {@code -Dbudgetbuddy.budgetAlerts=false} to turn the engine off.
+ */
+public class BudgetAlertEngine implements TransactionWriteListener {
+
+    /** Receives alerts on the thread that made the write, never the EDT. */
+    public interface Listener {
+        void budgetAlert(BudgetAlert alert);
+    }
+
+    private static final Logger LOG = Logger.getLogger(BudgetAlertEngine.class.getName());
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("budgetbuddy.budgetAlerts", "true"));
+    private static final int[] PERCENTS = parsePercents(System.getProperty("budgetbuddy.budgetAlerts.percents", "80,100"));
+
+    private static final String SPENT_SQL =
+            "SELECT category, total FROM monthly_category_totals WHERE user_id = ? AND `year_month` = ? AND type = 'Expense'";
+    private static final String LIMITS_SQL = "SELECT category, monthly_limit FROM budgets WHERE user_id = ?";
+
+    private static final BudgetAlertEngine INSTANCE = new BudgetAlertEngine();
+
+    static {
+        TransactionWrites.register(INSTANCE);
+    }
+
+    private final SessionStore<Figures> store = new SessionStore<>("budget figures", ENABLED, BudgetAlertEngine::loadFigures);
+
+    // Per category, the index into PERCENTS of the highest threshold already alerted in alertedMonth
+    private final Map<String, Integer> alerted = new HashMap<>();
+    private YearMonth alertedMonth;
+
+    private volatile Listener listener;
+
+    /** One month's spend and the budgets it is held against. */
+    private static final class Figures {
+        final YearMonth month;
+        final Map<String, Double> spent = new HashMap<>();
+        final Map<String, Double> limits = new HashMap<>();
+
+        Figures(YearMonth month) {
+            this.month = month;
+        }
+
+        @Override
+        public String toString() {
+            return "budget figures for " + month + " (" + limits.size() + " budgets)";
+        }
+    }
+
+    public static BudgetAlertEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /** Sets the one listener, e.g. the dashboard frame; null removes it. */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Drops any previous user's figures and loads this user's in the background. Budgets
+     * already over a threshold at login do not alert; the budgets screen shows them.
+     */
+    public CompletableFuture<Void> open(int userId) {
+        synchronized (this) {
+            alerted.clear();
+            alertedMonth = null;
+        }
+        return store.open(userId).thenAccept(figures -> afterLoad(userId, figures, false));
+    }
+
+    /** Forgets the figures, e.g. on logout. */
+    public void close() {
+        store.close();
+        synchronized (this) {
+            alerted.clear();
+            alertedMonth = null;
+        }
+    }
+
+    /** Adds a newly inserted transaction to the month's spend. */
+    @Override
+    public void recordInsert(int userId, TransactionRecord transaction) {
+        apply(userId, transaction, 1);
+    }
+
+    /** Takes a deleted transaction out of the month's spend. */
+    @Override
+    public void recordDelete(int userId, TransactionRecord transaction) {
+        apply(userId, transaction, -1);
+    }
+
+    /** Applies a saved budget limit; lowering it below the spend alerts like a write would. */
+    public void recordLimit(int userId, String category, double monthlyLimit) {
+        notifyListener(store.write(userId, figures -> {
+            figures.limits.put(category, monthlyLimit);
+            return check(userId, figures, category);
+        }));
+    }
+
+    /**
+     * Re-reads the figures after a bulk change (an import, recurring entries, a budget
+     * sync). Thresholds the change crossed alert once the figures are back.
+     */
+    @Override
+    public void reload(int userId) {
+        store.reload(userId).thenAccept(figures -> afterLoad(userId, figures, true));
+    }
+
+    /** {@link #reload} for whoever is signed in, e.g. after every user's rollup was rebuilt. */
+    public void reloadAll() {
+        int userId = store.getSessionUserId();
+        if (userId != -1) {
+            reload(userId);
+        }
+    }
+
+    private void apply(int userId, TransactionRecord transaction, int sign) {
+        if (!"Expense".equals(transaction.getType())) {
+            return;
+        }
+        Figures loaded = store.get(userId);
+        if (loaded != null && !YearMonth.now().equals(loaded.month)) {
+            // A new month started since the load: start over from its rollup
+            reload(userId);
+            return;
+        }
+        notifyListener(store.write(userId, figures -> {
+            if (!figures.month.equals(YearMonth.from(transaction.getDate()))) {
+                return null;
+            }
+            figures.spent.merge(transaction.getCategory(), sign * transaction.getAmount(), Double::sum);
+            return check(userId, figures, transaction.getCategory());
+        }));
+    }
+
+    // Brings the alerted levels up to freshly loaded figures, unless a newer load replaced them
+    private void afterLoad(int userId, Figures figures, boolean alertOnLoad) {
+        if (figures == null) {
+            return;
+        }
+        List<BudgetAlert> alerts = store.read(userId, current -> {
+            if (current != figures) {
+                return null;
+            }
+            List<BudgetAlert> reached = new ArrayList<>();
+            for (String category : figures.limits.keySet()) {
+                BudgetAlert alert = check(userId, figures, category);
+                if (alert != null) {
+                    reached.add(alert);
+                }
+            }
+            return reached;
+        });
+        if (alerts != null && alertOnLoad) {
+            alerts.forEach(this::notifyListener);
+        }
+    }
+
+    /**
+     * Moves the category's alerted level to its current one.
+     * @return The alert for a threshold reached on the way up, or null.
+     */
+    private synchronized BudgetAlert check(int userId, Figures figures, String category) {
+        if (!figures.month.equals(alertedMonth)) {
+            // Alerts start afresh each month
+            alerted.clear();
+            alertedMonth = figures.month;
+        }
+        Double limit = figures.limits.get(category);
+        double categorySpent = figures.spent.getOrDefault(category, 0.0);
+        int level = limit == null || limit <= 0 ? -1 : levelOf(categorySpent, limit);
+        int previous = alerted.getOrDefault(category, -1);
+        alerted.put(category, level);
+        return level > previous
+                ? new BudgetAlert(userId, figures.month, category, PERCENTS[level], categorySpent, limit)
+                : null;
+    }
+
+    private static int levelOf(double categorySpent, double limit) {
+        int level = -1;
+        for (int i = 0; i < PERCENTS.length; i++) {
+            // Cents, so 80% of $100.00 is reached at exactly $80.00
+            if (Math.round(categorySpent * 100) >= Math.round(limit * PERCENTS[i])) {
+                level = i;
+            }
+        }
+        return level;
+    }
+
+    private void notifyListener(BudgetAlert alert) {
+        Listener current = listener;
+        if (alert != null && current != null) {
+            current.budgetAlert(alert);
+        }
+    }
+
+    private static Figures loadFigures(int userId) throws SQLException {
+        Figures figures = new Figures(YearMonth.now());
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.BUDGET_STATUS);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement spentStmt = conn.prepareStatement(SPENT_SQL);
+             PreparedStatement limitsStmt = conn.prepareStatement(LIMITS_SQL)) {
+
+            spentStmt.setInt(1, userId);
+            spentStmt.setString(2, MonthlyRollup.yearMonth(figures.month));
+            try (ResultSet rs = spentStmt.executeQuery()) {
+                while (rs.next()) {
+                    figures.spent.put(rs.getString("category"), rs.getDouble("total"));
+                }
+            }
+            limitsStmt.setInt(1, userId);
+            try (ResultSet rs = limitsStmt.executeQuery()) {
+                while (rs.next()) {
+                    figures.limits.put(rs.getString("category"), rs.getDouble("monthly_limit"));
+                }
+            }
+            timer.rows(figures.spent.size() + figures.limits.size());
+        }
+        return figures;
+    }
+
+    private static int[] parsePercents(String value) {
+        try {
+            return Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(percent -> !percent.isEmpty())
+                    .mapToInt(Integer::parseInt)
+                    .sorted()
+                    .toArray();
+        } catch (NumberFormatException e) {
+            LOG.warning("Ignoring -Dbudgetbuddy.budgetAlerts.percents=" + value + ": " + e.getMessage());
+            return new int[]{80, 100};
+        }
+    }
+}
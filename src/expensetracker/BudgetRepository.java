@@ -0,0 +1,17 @@
+package expensetracker;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Storage for the monthly spending limits users set per category.
+ */
+public interface BudgetRepository {
+
+    /** Creates or replaces the monthly limit for one of the user's categories. */
+    void saveBudget(int userId, String category, double limit) throws SQLException;
+
+    /** Every budget of the user with its spend in the given month. */
+    List<BudgetStatus> loadBudgetStatus(int userId, YearMonth month) throws SQLException;
+}
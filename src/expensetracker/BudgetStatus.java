@@ -0,0 +1,31 @@
+package expensetracker;
+
+/**
+ * A category budget together with what has been spent against it this month.
+ */
+public class BudgetStatus {
+
+    private final String category;
+    private final double monthlyLimit;
+    private final double spent;
+
+    public BudgetStatus(String category, double monthlyLimit, double spent) {
+        this.category = category;
+        this.monthlyLimit = monthlyLimit;
+        this.spent = spent;
+    }
+
+    public String getCategory() { return category; }
+
+    public double getMonthlyLimit() { return monthlyLimit; }
+
+    public double getSpent() { return spent; }
+
+    public double getRemaining() {
+        return monthlyLimit - spent;
+    }
+
+    public boolean isExceeded() {
+        return spent > monthlyLimit;
+    }
+}
@@ -0,0 +1,234 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's transactions held column by column in primitive arrays: amount in cents,
+ * epoch day, a dictionary-encoded category id and an expense flag. Sums, group-bys and
+ * date-range filters are plain loops over those arrays, with no boxing and no SQL.
+ *
+ * Row order is not meaningful; removing a row moves the last row into its slot. A map
+ * from transaction id to slot finds that row without scanning, so deleting many rows
+ * one by one stays linear in the number deleted.
+ * All methods are synchronized, so the ledger can be read from any thread while the
+ * writer keeps it in step with the database.
+ */
+public class ColumnarLedger {
+
+    /** Matches every day when used as a range bound. */
+    public static final int ALL_DAYS_FROM = Integer.MIN_VALUE;
+    public static final int ALL_DAYS_TO = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final String LOAD_SQL =
+            "SELECT transaction_id, type, amount, category, transaction_date FROM transactions WHERE user_id = ?";
+
+    private final int userId;
+
+    private int size = 0;
+    private int[] transactionIds = new int[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private boolean[] expense = new boolean[INITIAL_CAPACITY];
+
+    // transaction_id -> slot in the arrays above
+    private final IntIntMap slotsById = new IntIntMap();
+
+    // Category dictionary: id -> name, and name -> id
+    private final List<String> categories = new ArrayList<>();
+    private final Map<String, Integer> categoryIndex = new HashMap<>();
+
+    public ColumnarLedger(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Reads all of the user's transactions into a new ledger. The rows are streamed, so
+     * only the columns are held in memory, never the result set.
+     */
+    public static ColumnarLedger load(int userId) throws SQLException {
+        ColumnarLedger ledger = new ColumnarLedger(userId);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.LEDGER_LOAD);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseManager.streamResults(pstmt);
+            pstmt.setInt(1, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Date date = rs.getDate("transaction_date");
+                    ledger.append(rs.getInt("transaction_id"),
+                            "Expense".equals(rs.getString("type")),
+                            toCents(rs.getDouble("amount")),
+                            rs.getString("category"),
+                            date == null ? 0 : (int) date.toLocalDate().toEpochDay());
+                }
+            }
+            timer.rows(ledger.size());
+        }
+        return ledger;
+    }
+
+    public int getUserId() { return userId; }
+
+    public synchronized int size() { return size; }
+
+    /** Adds a stored transaction. */
+    public synchronized void add(TransactionRecord transaction) {
+        LocalDate date = transaction.getDate();
+        append(transaction.getTransactionId(), transaction.isExpense(), toCents(transaction.getAmount()),
+                transaction.getCategory(), date == null ? 0 : (int) date.toEpochDay());
+    }
+
+    /**
+     * Removes a transaction by id.
+     * @return true if the ledger held it.
+     */
+    public synchronized boolean remove(int transactionId) {
+        int i = slotsById.remove(transactionId);
+        if (i == IntIntMap.MISSING) {
+            return false;
+        }
+        int last = --size;
+        if (i != last) {
+            transactionIds[i] = transactionIds[last];
+            amountCents[i] = amountCents[last];
+            epochDays[i] = epochDays[last];
+            categoryIds[i] = categoryIds[last];
+            expense[i] = expense[last];
+            slotsById.put(transactionIds[i], i);
+        }
+        return true;
+    }
+
+    /**
+     * Sums the income or expense amounts dated within [fromDay, toDay].
+     * @return The total in cents.
+     */
+    public synchronized long sumCents(boolean expenses, int fromDay, int toDay) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (expense[i] == expenses && epochDays[i] >= fromDay && epochDays[i] <= toDay) {
+                total += amountCents[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Groups the income or expense amounts dated within [fromDay, toDay] by category.
+     * @return Totals in currency units, only for categories with at least one matching row.
+     */
+    public synchronized Map<String, Double> sumByCategory(boolean expenses, int fromDay, int toDay) {
+        long[] totals = new long[categories.size()];
+        int[] counts = new int[categories.size()];
+        for (int i = 0; i < size; i++) {
+            if (expense[i] == expenses && epochDays[i] >= fromDay && epochDays[i] <= toDay) {
+                totals[categoryIds[i]] += amountCents[i];
+                counts[categoryIds[i]]++;
+            }
+        }
+        return toCategoryMap(totals, counts);
+    }
+
+    /** The same figures {@link TransactionRepository#loadDashboardSnapshot} reads from the rollup. */
+    public synchronized DashboardSnapshot toSnapshot(YearMonth month) {
+        int monthStart = (int) month.atDay(1).toEpochDay();
+        int monthEnd = (int) month.atEndOfMonth().toEpochDay();
+
+        long income = 0;
+        long[] expenseTotals = new long[categories.size()];
+        int[] expenseCounts = new int[categories.size()];
+        long[] monthTotals = new long[categories.size()];
+        int[] monthCounts = new int[categories.size()];
+
+        for (int i = 0; i < size; i++) {
+            if (!expense[i]) {
+                income += amountCents[i];
+                continue;
+            }
+            int category = categoryIds[i];
+            expenseTotals[category] += amountCents[i];
+            expenseCounts[category]++;
+            if (epochDays[i] >= monthStart && epochDays[i] <= monthEnd) {
+                monthTotals[category] += amountCents[i];
+                monthCounts[category]++;
+            }
+        }
+
+        long expenses = 0;
+        for (long total : expenseTotals) {
+            expenses += total;
+        }
+        return new DashboardSnapshot(fromCents(income), fromCents(expenses),
+                toCategoryMap(expenseTotals, expenseCounts), month, toCategoryMap(monthTotals, monthCounts));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ColumnarLedger[user=" + userId + ", rows=" + size + ", categories=" + categories.size() + "]";
+    }
+
+    private void append(int transactionId, boolean isExpense, long cents, String category, int epochDay) {
+        if (size == transactionIds.length) {
+            int capacity = size * 2;
+            transactionIds = Arrays.copyOf(transactionIds, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            expense = Arrays.copyOf(expense, capacity);
+        }
+        transactionIds[size] = transactionId;
+        amountCents[size] = cents;
+        epochDays[size] = epochDay;
+        categoryIds[size] = categoryId(category);
+        expense[size] = isExpense;
+        slotsById.put(transactionId, size);
+        size++;
+    }
+
+    private int categoryId(String category) {
+        Integer id = categoryIndex.get(category);
+        if (id == null) {
+            id = categories.size();
+            categories.add(category);
+            categoryIndex.put(category, id);
+        }
+        return id;
+    }
+
+    private Map<String, Double> toCategoryMap(long[] totals, int[] counts) {
+        Map<String, Double> byCategory = new LinkedHashMap<>();
+        for (int id = 0; id < totals.length; id++) {
+            if (counts[id] > 0) {
+                byCategory.put(categories.get(id), fromCents(totals[id]));
+            }
+        }
+        return byCategory;
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,72 @@
+package expensetracker;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the {@link ColumnarLedger} of the logged-in user. The ledger is loaded in the
+ * background right after login and then kept in step with every insert and delete, so
+ * analytics can run in memory instead of as SQL aggregates.
+ *
+ * The store is optional: start with {@code -Dbudgetbuddy.columnar=false} to turn it off,
+ * and every caller falls back to the database while {@link #get} returns null.
+ */
+public class ColumnarStore implements TransactionWriteListener {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("budgetbuddy.columnar", "true"));
+
+    private static final ColumnarStore INSTANCE = new ColumnarStore();
+
+    static {
+        TransactionWrites.register(INSTANCE);
+    }
+
+    private final SessionStore<ColumnarLedger> store = new SessionStore<>("columnar ledger", ENABLED, ColumnarLedger::load);
+
+    public static ColumnarStore getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Drops any previous user's ledger and starts loading this user's in the background.
+     * @return A future with the loaded ledger, or null if the store is off or the load gave up.
+     */
+    public CompletableFuture<ColumnarLedger> open(int userId) {
+        return store.open(userId);
+    }
+
+    /** Forgets the ledger, e.g. on logout. */
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * The user's ledger if it is loaded and current, never touching the database.
+     * @return The ledger, or null if callers should query MySQL instead.
+     */
+    public ColumnarLedger get(int userId) {
+        return store.get(userId);
+    }
+
+    /** Adds a newly inserted transaction to the user's ledger. */
+    @Override
+    public void recordInsert(int userId, TransactionRecord transaction) {
+        store.update(userId, ledger -> ledger.add(transaction));
+    }
+
+    /** Takes a deleted transaction out of the user's ledger. */
+    @Override
+    public void recordDelete(int userId, TransactionRecord transaction) {
+        store.update(userId, ledger -> ledger.remove(transaction.getTransactionId()));
+    }
+
+    /** Re-reads the user's ledger after a bulk change such as an import. */
+    @Override
+    public void reload(int userId) {
+        store.reload(userId);
+    }
+}
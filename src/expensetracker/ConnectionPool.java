@@ -0,0 +1,505 @@
+package expensetracker;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool.
+ * Connections handed out by {@link #borrow()} are proxies: calling close() on them
+ * returns the physical connection to the pool instead of closing the socket, so the
+ * existing try-with-resources blocks in the panels need no changes.
+ *
+ * Each pooled connection also keeps its most recently used prepared statements open,
+ * keyed by SQL text and statement options. A prepareStatement call for SQL that was
+ * prepared before on that connection gets the open statement back, so it is parsed and
+ * planned once per connection instead of once per call. Closing such a statement
+ * resets it and returns it to the cache.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int minIdle;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    // Most recently returned connections sit at the head, so hot connections get reused
+    // and cold ones drift to the tail where the evictor finds them.
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    // Per SQL text: {hits, misses}
+    private final Map<String, AtomicLong[]> statementCounters = new ConcurrentHashMap<>();
+
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minIdle, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis,
+                          long validationIntervalMillis, int validationTimeoutSeconds,
+                          int statementCacheSize) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "BudgetBuddy-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictAndTopUp, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout if the pool is exhausted.
+     * @return A connection whose close() hands it back to the pool.
+     * @throws SQLTimeoutException if no connection became available in time.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) throw new SQLException("Connection pool has been shut down.");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(openPhysical());
+            }
+            active.incrementAndGet();
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** Snapshot of the current pool counters, for tuning under load. */
+    public PoolStats getStats() {
+        long acquires = acquireCount.get();
+        return new PoolStats(
+                active.get(),
+                idle.size(),
+                total.get(),
+                maxSize,
+                permits.getQueueLength(),
+                acquires,
+                acquires == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / acquires,
+                maxWaitNanos.get() / 1_000_000.0,
+                timeoutCount.get(),
+                createdCount.get(),
+                evictedCount.get(),
+                statementHits.get(),
+                statementMisses.get());
+    }
+
+    /** Statement cache counters per SQL text, most prepared first. */
+    public List<StatementStats> getStatementStats() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (Map.Entry<String, AtomicLong[]> counter : statementCounters.entrySet()) {
+            stats.add(new StatementStats(counter.getKey(), counter.getValue()[0].get(), counter.getValue()[1].get()));
+        }
+        stats.sort(Comparator.comparingLong(StatementStats::getPrepares).reversed());
+        return stats;
+    }
+
+    /** Closes every idle connection and rejects further borrows. Leased connections are closed on return. */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                return entry;
+            }
+            discard(entry);
+        }
+        return null;
+    }
+
+    // Validation-on-borrow; a connection that was returned moments ago is trusted without a ping.
+    private boolean isUsable(PooledEntry entry) {
+        if (System.currentTimeMillis() - entry.lastReturned < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        total.incrementAndGet();
+        createdCount.incrementAndGet();
+        return physical;
+    }
+
+    private void release(PooledEntry entry) {
+        active.decrementAndGet();
+        try {
+            if (shutdown || entry.physical.isClosed()) {
+                discard(entry);
+                return;
+            }
+            // Never hand a half-finished transaction to the next borrower.
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.physical.clearWarnings();
+            entry.statements.releaseAll();
+            entry.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledEntry entry) {
+        total.decrementAndGet();
+        try {
+            entry.physical.close();
+        } catch (SQLException ignored) {
+            // The connection is being thrown away anyway.
+        }
+    }
+
+    private void evictAndTopUp() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledEntry> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledEntry entry = it.next();
+            if (now - entry.lastReturned > idleTimeoutMillis && idle.remove(entry)) {
+                evictedCount.incrementAndGet();
+                discard(entry);
+            }
+        }
+
+        while (!shutdown && total.get() < minIdle && idle.size() < minIdle) {
+            try {
+                PooledEntry entry = new PooledEntry(openPhysical());
+                entry.lastReturned = now;
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                // The database is not reachable yet; borrowers will report the error.
+                return;
+            }
+        }
+    }
+
+    private void recordStatement(String sql, boolean hit) {
+        (hit ? statementHits : statementMisses).incrementAndGet();
+        AtomicLong[] counters = statementCounters.computeIfAbsent(sql,
+                key -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+        counters[hit ? 0 : 1].incrementAndGet();
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        acquireCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /** A physical connection plus the bookkeeping the pool needs for it. */
+    private final class PooledEntry {
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastReturned;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    /** Routes calls to the physical connection until the borrower closes its lease. */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed = false;
+
+        LeaseHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    if (method.getName().equals("prepareStatement") && statementCacheSize > 0) {
+                        return entry.statements.prepare((Connection) proxy, method, args);
+                    }
+                    return invokeOn(entry.physical, method, args);
+            }
+        }
+    }
+
+    /** The open prepared statements of one physical connection, least recently used evicted first. */
+    private final class StatementCache {
+        private final Connection physical;
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        StatementCache(Connection physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement prepare(Connection lease, Method method, Object[] args) throws Throwable {
+            String sql = (String) args[0];
+            // Options such as RETURN_GENERATED_KEYS or the result set type are part of the key
+            String key = args.length == 1 ? sql : sql + Arrays.toString(Arrays.copyOfRange(args, 1, args.length));
+
+            CachedStatement cached;
+            synchronized (this) {
+                cached = statements.get(key);
+                if (cached != null && cached.handle == null) {
+                    recordStatement(sql, true);
+                    return cached.lease(lease);
+                }
+            }
+
+            recordStatement(sql, false);
+            PreparedStatement created = (PreparedStatement) invokeOn(physical, method, args);
+            if (cached != null) {
+                // The same SQL is already open on this connection (nested use): hand out a plain statement
+                return created;
+            }
+
+            synchronized (this) {
+                CachedStatement added = new CachedStatement(created);
+                statements.put(key, added);
+                evictOverCapacity();
+                return added.lease(lease);
+            }
+        }
+
+        /** Takes back statements the borrower left open, when the connection returns to the pool. */
+        synchronized void releaseAll() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (it.hasNext()) {
+                CachedStatement cached = it.next();
+                if (cached.handle != null && !cached.giveBack()) {
+                    it.remove();
+                }
+            }
+        }
+
+        private void evictOverCapacity() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement cached = it.next();
+                if (cached.handle == null) {
+                    it.remove();
+                    cached.closeQuietly();
+                }
+            }
+        }
+
+        /** One open statement; {@code handle} is the borrower's proxy while it is in use. */
+        private final class CachedStatement {
+            final PreparedStatement statement;
+            final int defaultFetchSize;
+            final int defaultMaxRows;
+            final int defaultQueryTimeout;
+            StatementHandle handle;
+
+            CachedStatement(PreparedStatement statement) throws SQLException {
+                this.statement = statement;
+                this.defaultFetchSize = statement.getFetchSize();
+                this.defaultMaxRows = statement.getMaxRows();
+                this.defaultQueryTimeout = statement.getQueryTimeout();
+            }
+
+            PreparedStatement lease(Connection lease) {
+                handle = new StatementHandle(this, lease);
+                return (PreparedStatement) Proxy.newProxyInstance(
+                        PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class},
+                        handle);
+            }
+
+            /**
+             * Resets what the borrower changed and marks the statement free.
+             * @return false if the statement could not be reset and was closed instead.
+             */
+            boolean giveBack() {
+                handle.closed = true;
+                handle = null;
+                try {
+                    ResultSet open = statement.getResultSet();
+                    if (open != null) {
+                        open.close();
+                    }
+                    statement.clearParameters();
+                    statement.clearBatch();
+                    statement.clearWarnings();
+                    // A limit set by one borrower must not cut off the next one's results
+                    if (statement.getFetchSize() != defaultFetchSize) {
+                        statement.setFetchSize(defaultFetchSize);
+                    }
+                    if (statement.getMaxRows() != defaultMaxRows) {
+                        statement.setMaxRows(defaultMaxRows);
+                    }
+                    if (statement.getQueryTimeout() != defaultQueryTimeout) {
+                        statement.setQueryTimeout(defaultQueryTimeout);
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    closeQuietly();
+                    return false;
+                }
+            }
+
+            void closeQuietly() {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // Dropped from the cache anyway.
+                }
+            }
+        }
+
+        /** The borrower's view of a cached statement: close() returns it to the cache. */
+        private final class StatementHandle implements InvocationHandler {
+            private final CachedStatement cached;
+            private final Connection lease;
+            private boolean closed = false;
+
+            StatementHandle(CachedStatement cached, Connection lease) {
+                this.cached = cached;
+                this.lease = lease;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        synchronized (StatementCache.this) {
+                            if (!closed && !cached.giveBack()) {
+                                statements.values().remove(cached);
+                            }
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "getConnection":
+                        return lease;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Cached[" + cached.statement + "]";
+                    default:
+                        if (closed) {
+                            throw new SQLException("Statement has already been closed.");
+                        }
+                        return invokeOn(cached.statement, method, args);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** Where a repository gets its connections: the local pool, or the central database of a replica. */
+@FunctionalInterface
+public interface ConnectionSource {
+    Connection open() throws SQLException;
+}
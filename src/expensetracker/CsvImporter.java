@@ -0,0 +1,370 @@
+package expensetracker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-loads transactions from a CSV file with the columns
+ * {@code type,amount,category,date,description} (a header row is optional).
+ *
+ * The file is streamed in fixed-size chunks, so memory does not grow with the file.
+ * Each chunk is validated in parallel while the previous one is being inserted, and
+ * valid rows go in with addBatch/executeBatch, one transaction per chunk that also
+ * updates the monthly rollup. Invalid rows are skipped and written to an error report
+ * next to the input file.
+ */
+public class CsvImporter {
+
+    /** Receives progress after every chunk; called on the import thread. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long rowsImported, long rowsFailed);
+    }
+
+    private static final int CHUNK_SIZE = 5_000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Imports every valid row of the file for the user.
+     * @return A summary with the first errors; the full list is in {@link ImportReport#getErrorFile()}.
+     */
+    public ImportReport importFile(int userId, Path csvFile, ProgressListener listener) throws IOException, SQLException {
+        Path errorFile = csvFile.resolveSibling(csvFile.getFileName() + ".errors.csv");
+        ImportReport report = new ImportReport(errorFile, MAX_REPORTED_ERRORS);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.IMPORT);
+             BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8);
+             Connection conn = DatabaseManager.openConnection()) {
+
+            errors.write("line,error");
+            errors.newLine();
+
+            CsvLineReader lines = new CsvLineReader(reader);
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                CompletableFuture<List<ParsedRow>> next = validateAsync(lines.readChunk(CHUNK_SIZE));
+
+                while (true) {
+                    List<ParsedRow> chunk = next.join();
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    // Read and validate the following chunk while this one is inserted
+                    next = validateAsync(lines.readChunk(CHUNK_SIZE));
+
+                    List<ParsedRow> valid = new ArrayList<>(chunk.size());
+                    for (ParsedRow row : chunk) {
+                        if (row.error != null) {
+                            report.addError(row.lineNumber, row.error, errors);
+                        } else {
+                            valid.add(row);
+                        }
+                    }
+                    report.addRead(chunk.size());
+
+                    insertChunk(conn, pstmt, userId, valid, report, errors);
+
+                    if (listener != null) {
+                        listener.onProgress(report.getRowsRead(), report.getRowsImported(), report.getRowsFailed());
+                    }
+                }
+            } finally {
+                conn.setAutoCommit(true);
+                timer.rows(report.getRowsImported());
+            }
+        } finally {
+            // Totals changed in bulk; re-reading once is cheaper than replaying every row
+            TransactionWrites.bulkChanged(userId);
+            DataVersion.bump();
+            ReplicaSync.requestSync();
+        }
+        return report;
+    }
+
+    private CompletableFuture<List<ParsedRow>> validateAsync(List<CsvLine> lines) {
+        return CompletableFuture.supplyAsync(() -> lines.parallelStream()
+                .map(CsvImporter::parse)
+                .collect(Collectors.toList()));
+    }
+
+    private void insertChunk(Connection conn, PreparedStatement pstmt, int userId, List<ParsedRow> rows,
+                             ImportReport report, BufferedWriter errors) throws SQLException, IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            for (ParsedRow row : rows) {
+                bind(pstmt, userId, row);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            addChunkToRollup(conn, userId, rows);
+            ReplicaOutbox.recordInserts(conn, userId, rows.stream().map(row -> row.entryId).collect(Collectors.toList()));
+            conn.commit();
+            report.addImported(rows.size());
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            pstmt.clearBatch();
+            // Retry row by row so only the rows the database rejects are reported
+            for (ParsedRow row : rows) {
+                try {
+                    bind(pstmt, userId, row);
+                    pstmt.executeUpdate();
+                    MonthlyRollup.apply(conn, userId, row.toRecord(), 1);
+                    ReplicaOutbox.recordTransaction(conn, userId, ReplicaOutbox.INSERT, row.entryId);
+                    conn.commit();
+                    report.addImported(1);
+                } catch (SQLException rowError) {
+                    conn.rollback();
+                    report.addError(row.lineNumber, rowError.getMessage(), errors);
+                }
+            }
+        }
+    }
+
+    /**
+     * Folds a chunk into a few rollup deltas, one per (month, category, type) and one per
+     * (day, type), and applies them as two batches inside the chunk's transaction.
+     */
+    private void addChunkToRollup(Connection conn, int userId, List<ParsedRow> rows) throws SQLException {
+        Map<List<String>, double[]> deltas = new HashMap<>();
+        Map<List<Object>, double[]> dailyDeltas = new HashMap<>();
+        for (ParsedRow row : rows) {
+            double[] delta = deltas.computeIfAbsent(
+                    List.of(MonthlyRollup.yearMonth(row.date), row.category, row.type), key -> new double[2]);
+            delta[0] += row.amount;
+            delta[1]++;
+
+            double[] dailyDelta = dailyDeltas.computeIfAbsent(List.of(row.date, row.type), key -> new double[2]);
+            dailyDelta[0] += row.amount;
+            dailyDelta[1]++;
+        }
+
+        try (PreparedStatement upsert = MonthlyRollup.prepareUpsert(conn)) {
+            for (Map.Entry<List<String>, double[]> delta : deltas.entrySet()) {
+                List<String> key = delta.getKey();
+                MonthlyRollup.bindUpsert(upsert, userId, key.get(0), key.get(1), key.get(2),
+                        delta.getValue()[0], (int) delta.getValue()[1]);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+        try (PreparedStatement upsert = MonthlyRollup.prepareDailyUpsert(conn)) {
+            for (Map.Entry<List<Object>, double[]> delta : dailyDeltas.entrySet()) {
+                List<Object> key = delta.getKey();
+                MonthlyRollup.bindDailyUpsert(upsert, userId, (LocalDate) key.get(0), (String) key.get(1),
+                        delta.getValue()[0], (int) delta.getValue()[1]);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, int userId, ParsedRow row) throws SQLException {
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, row.type);
+        pstmt.setDouble(3, row.amount);
+        pstmt.setString(4, row.category);
+        pstmt.setString(5, row.description);
+        pstmt.setDate(6, Date.valueOf(row.date));
+        pstmt.setString(7, row.entryId);
+    }
+
+    /** Applies the same rules as the transaction form. */
+    private static ParsedRow parse(CsvLine line) {
+        List<String> fields = line.fields;
+        if (fields.size() < 4) {
+            return ParsedRow.error(line.number, "Expected type,amount,category,date[,description]");
+        }
+
+        String type = fields.get(0).trim();
+        if (type.equalsIgnoreCase("Income")) {
+            type = "Income";
+        } else if (type.equalsIgnoreCase("Expense")) {
+            type = "Expense";
+        } else {
+            return ParsedRow.error(line.number, "Type must be Income or Expense: " + type);
+        }
+
+        double amount;
+        try {
+            amount = Double.parseDouble(fields.get(1).trim());
+        } catch (NumberFormatException e) {
+            return ParsedRow.error(line.number, "Invalid amount: " + fields.get(1));
+        }
+        if (!TransactionRecord.isStorableAmount(amount)) {
+            return ParsedRow.error(line.number, "Amount out of range: " + fields.get(1));
+        }
+
+        String category = fields.get(2).trim();
+        if (category.isEmpty()) {
+            return ParsedRow.error(line.number, "Category is required");
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(fields.get(3).trim());
+        } catch (DateTimeParseException e) {
+            return ParsedRow.error(line.number, "Date must be YYYY-MM-DD: " + fields.get(3));
+        }
+
+        String description = fields.size() > 4 ? fields.get(4) : "";
+        if (description.length() > TransactionRecord.MAX_DESCRIPTION_LENGTH) {
+            return ParsedRow.error(line.number, "Description longer than " + TransactionRecord.MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        return new ParsedRow(line.number, type, amount, category, date, description, null);
+    }
+
+    /** One validated row, or the reason it was rejected. */
+    private static final class ParsedRow {
+        final long lineNumber;
+        final String type;
+        final double amount;
+        final String category;
+        final LocalDate date;
+        final String description;
+        final String error;
+        // Fixed per row, so the row-by-row retry stores the same identity
+        final String entryId = UUID.randomUUID().toString();
+
+        ParsedRow(long lineNumber, String type, double amount, String category,
+                  LocalDate date, String description, String error) {
+            this.lineNumber = lineNumber;
+            this.type = type;
+            this.amount = amount;
+            this.category = category;
+            this.date = date;
+            this.description = description;
+            this.error = error;
+        }
+
+        TransactionRecord toRecord() {
+            return new TransactionRecord(-1, type, category, amount, date, description);
+        }
+
+        static ParsedRow error(long lineNumber, String error) {
+            return new ParsedRow(lineNumber, null, 0, null, null, null, error);
+        }
+    }
+
+    /** The fields of one CSV record and the line it started on. */
+    private static final class CsvLine {
+        final long number;
+        final List<String> fields;
+
+        CsvLine(long number, List<String> fields) {
+            this.number = number;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and
+     * line breaks. A first record starting with "type" is treated as a header.
+     */
+    private static final class CsvLineReader {
+        private final BufferedReader reader;
+        private long lineNumber = 0;
+        private boolean firstRecord = true;
+
+        CsvLineReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        List<CsvLine> readChunk(int maxRecords) throws IOException {
+            List<CsvLine> chunk = new ArrayList<>(Math.min(maxRecords, 1024));
+            CsvLine line;
+            while (chunk.size() < maxRecords && (line = readRecord()) != null) {
+                if (firstRecord) {
+                    firstRecord = false;
+                    if (!line.fields.isEmpty() && line.fields.get(0).trim().equalsIgnoreCase("type")) {
+                        continue;
+                    }
+                }
+                chunk.add(line);
+            }
+            return chunk;
+        }
+
+        private CsvLine readRecord() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                lineNumber++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            long startLine = lineNumber;
+            List<String> fields = new ArrayList<>(5);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+
+            while (true) {
+                if (i >= text.length()) {
+                    if (quoted) {
+                        // The quoted field continues on the next physical line
+                        String more = reader.readLine();
+                        lineNumber++;
+                        if (more == null) {
+                            break;
+                        }
+                        field.append('\n');
+                        text = more;
+                        i = 0;
+                        continue;
+                    }
+                    break;
+                }
+
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return new CsvLine(startLine, fields);
+        }
+    }
+}
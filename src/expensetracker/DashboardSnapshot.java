@@ -0,0 +1,51 @@
+package expensetracker;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything the dashboard and budget screens show for one user: the income and expense
+ * totals, the per-category expense breakdown and this month's spend per category,
+ * read together in one round trip.
+ */
+public class DashboardSnapshot {
+
+    private final double totalIncome;
+    private final double totalExpenses;
+    private final Map<String, Double> expensesByCategory;
+    private final YearMonth spendMonth;
+    private final Map<String, Double> monthSpendByCategory;
+
+    public DashboardSnapshot(double totalIncome, double totalExpenses, Map<String, Double> expensesByCategory,
+                             YearMonth spendMonth, Map<String, Double> monthSpendByCategory) {
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.expensesByCategory = Collections.unmodifiableMap(new LinkedHashMap<>(expensesByCategory));
+        this.spendMonth = spendMonth;
+        this.monthSpendByCategory = Collections.unmodifiableMap(new LinkedHashMap<>(monthSpendByCategory));
+    }
+
+    public double getTotalIncome() { return totalIncome; }
+
+    public double getTotalExpenses() { return totalExpenses; }
+
+    public double getNetSavings() {
+        return totalIncome - totalExpenses;
+    }
+
+    /** Expense total per category, in the order the database returned them. */
+    public Map<String, Double> getExpensesByCategory() { return expensesByCategory; }
+
+    /** The month that {@link #getMonthSpendByCategory()} covers. */
+    public YearMonth getSpendMonth() { return spendMonth; }
+
+    /** Expenses per category within {@link #getSpendMonth()}, used for budget status. */
+    public Map<String, Double> getMonthSpendByCategory() { return monthSpendByCategory; }
+
+    /** This month's spend in one category, 0 if nothing was spent. */
+    public double getMonthSpend(String category) {
+        return monthSpendByCategory.getOrDefault(category, 0.0);
+    }
+}
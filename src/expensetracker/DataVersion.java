@@ -0,0 +1,26 @@
+package expensetracker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that every committed write moves forward: transactions, budgets and
+ * recurring templates, whether saved here or pulled by {@link ReplicaSync}. Screens that
+ * are kept between visits remember the version they loaded and reload only when it has
+ * moved since.
+ */
+public final class DataVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /** Marks everything read before now as possibly stale. */
+    public static void bump() {
+        VERSION.incrementAndGet();
+    }
+}
@@ -1,65 +1,132 @@
 package expensetracker;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
 
+/**
+ * Owns the connection pool for the configured {@link StorageBackend} and migrates the
+ * schema before the first connection is handed out. Queries live in the repositories,
+ * see {@link Repositories}.
+ */
 public class DatabaseManager {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/expense_income_db";
-    private static final String USER = "root";
-    private static final String PASS = "Solamata@18";
+    // -Dbudgetbuddy.backend picks the database; -Dbudgetbuddy.db.* overrides its connection settings
+    private static final StorageBackend BACKEND = StorageBackend.fromSystemProperty();
+    private static final String DB_URL = System.getProperty("budgetbuddy.db.url", BACKEND.defaultUrl());
+    private static final String USER = System.getProperty("budgetbuddy.db.user", BACKEND.getDefaultUser());
+    private static final String PASS = System.getProperty("budgetbuddy.db.password", BACKEND.getDefaultPassword());
+    private static final String DRIVER = System.getProperty("budgetbuddy.db.driver", BACKEND.getDriverClass());
+
+    // Pool tuning; each value can be overridden with -Dbudgetbuddy.pool.<name>=...
+    private static final int POOL_MIN_IDLE = Integer.getInteger("budgetbuddy.pool.minIdle", 1);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("budgetbuddy.pool.maxSize", 8);
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("budgetbuddy.pool.acquireTimeoutMs", 5_000);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("budgetbuddy.pool.idleTimeoutMs", 300_000);
+    private static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("budgetbuddy.pool.validationIntervalMs", 1_000);
+    private static final int POOL_VALIDATION_TIMEOUT_S = Integer.getInteger("budgetbuddy.pool.validationTimeoutS", 2);
+    // Open prepared statements kept per connection; 0 turns the statement cache off
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("budgetbuddy.pool.statementCacheSize", 64);
+
+    private static volatile ConnectionPool pool;
+    private static volatile boolean schemaMigrated = false;
 
     /**
-     * Establishes a connection to the MySQL database.
-     * @return A live Connection object, or null if the connection fails due to bad credentials/path.
+     * Borrows a connection from the shared pool. Closing it returns it to the pool.
+     * @throws SQLException If the driver is missing or the database cannot be reached.
      */
-    public static Connection getConnection() {
+    public static Connection openConnection() throws SQLException {
         try {
+            return borrow();
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver " + DRIVER + " not found. Please ensure the JAR is correctly added.", e);
+        }
+    }
 
-            Class.forName("com.mysql.cj.jdbc.Driver");
+    /** Current pool counters (active, idle, wait times), for tuning under load. */
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? new PoolStats(0, 0, 0, POOL_MAX_SIZE, 0, 0, 0, 0, 0, 0, 0, 0, 0) : current.getStats();
+    }
 
-            return DriverManager.getConnection(DB_URL, USER, PASS);
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found. Please ensure the JAR is correctly added.");
-            return null;
-        } catch (SQLException e) {
-            System.err.println("Database connection failed. Check URL, USER, and PASS variables in DatabaseManager.java.");
+    /** Prepared statement cache hits and misses per SQL text, most prepared first. */
+    public static List<StatementStats> getStatementStats() {
+        ConnectionPool current = pool;
+        return current == null ? List.of() : current.getStatementStats();
+    }
 
-            e.printStackTrace();
-            return null;
-        }
+    /** The database the app was started against. */
+    public static StorageBackend getBackend() {
+        return BACKEND;
+    }
+
+    /** Asks the driver to stream a large result set row by row instead of buffering it. */
+    static void streamResults(PreparedStatement pstmt) throws SQLException {
+        pstmt.setFetchSize(BACKEND.getStreamingFetchSize());
     }
 
     /**
-     * Authenticates a user against the 'users' table.
-     * @return The user_id (int) on success, or -1 on failure.
+     * Whether running the same statement again cannot succeed: the database refused the
+     * values themselves (SQLState class 22) or a constraint (class 23), rather than the
+     * connection failing or timing out.
      */
-    public int authenticateUser(String username, String password) {
-
-        String sql = "SELECT user_id FROM users WHERE username = ? AND password = ?";
-
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    static boolean isDataError(SQLException e) {
+        if (e instanceof SQLDataException || e instanceof SQLIntegrityConstraintViolationException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
 
-            if (conn == null) return -1;
+    // Only the wait for the pool is timed, not the one-off migration before the first borrow
+    private static Connection borrow() throws ClassNotFoundException, SQLException {
+        ConnectionPool current = getPool();
+        long start = System.nanoTime();
+        Connection conn = current.borrow();
+        QueryMetrics.recordConnectionAcquire(System.nanoTime() - start);
+        return conn;
+    }
 
-            pstmt.setString(1, username);
-            pstmt.setString(2, password);
+    private static ConnectionPool getPool() throws ClassNotFoundException, SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = pool;
+                if (current == null) {
+                    // Loaded once for the lifetime of the pool instead of on every query.
+                    Class.forName(DRIVER);
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("user_id"); // Return the user's unique ID
+                    current = new ConnectionPool(DB_URL, USER, PASS,
+                            POOL_MIN_IDLE, POOL_MAX_SIZE,
+                            POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS,
+                            POOL_VALIDATION_INTERVAL_MS, POOL_VALIDATION_TIMEOUT_S,
+                            POOL_STATEMENT_CACHE_SIZE);
+                    ConnectionPool created = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "BudgetBuddy-pool-shutdown"));
+                    pool = current;
                 }
-                return -1;
             }
+        }
+        if (!schemaMigrated) {
+            migrateSchema(current);
+        }
+        return current;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Authentication query failed.");
-            e.printStackTrace();
-            return -1;
+    /**
+     * Applies pending schema migrations before the first connection is handed out.
+     * If the database is unreachable this fails and is retried on the next borrow.
+     */
+    private static synchronized void migrateSchema(ConnectionPool current) throws SQLException {
+        if (schemaMigrated) {
+            return;
+        }
+        try (Connection conn = current.borrow()) {
+            new SchemaMigrator().migrate(conn);
         }
+        schemaMigrated = true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package expensetracker;
+
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs database work off the Swing Event Dispatch Thread.
+ * Every task gets its own virtual thread; the connection pool is what bounds how many
+ * of them actually talk to MySQL at once, so a slow query never blocks the UI or
+ * starves other screens of threads.
+ *
+ * Callers publish results back with e.g.
+ * {@code DbExecutor.submit(...).whenCompleteAsync(handler, SwingUtilities::invokeLater)}.
+ */
+public final class DbExecutor {
+
+    /** A unit of database work that may fail with an SQLException. */
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T run() throws SQLException;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("BudgetBuddy-db-", 0).factory());
+
+    private DbExecutor() {
+    }
+
+    /**
+     * Schedules a task on the database executor.
+     * @return A future completed with the task's result, or exceptionally with its SQLException.
+     */
+    public static <T> CompletableFuture<T> submit(SqlTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /** Unwraps the CompletionException (and UncheckedIOException) layers so UI code can show the real cause. */
+    public static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
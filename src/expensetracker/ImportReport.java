@@ -0,0 +1,56 @@
+package expensetracker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link CsvImporter} run. Every rejected row is written to the error
+ * file; only the first few are also kept here for display.
+ */
+public class ImportReport {
+
+    private final Path errorFile;
+    private final int maxKeptErrors;
+    private final List<String> firstErrors = new ArrayList<>();
+    private long rowsRead = 0;
+    private long rowsImported = 0;
+    private long rowsFailed = 0;
+
+    ImportReport(Path errorFile, int maxKeptErrors) {
+        this.errorFile = errorFile;
+        this.maxKeptErrors = maxKeptErrors;
+    }
+
+    void addRead(long rows) {
+        rowsRead += rows;
+    }
+
+    void addImported(long rows) {
+        rowsImported += rows;
+    }
+
+    void addError(long lineNumber, String message, BufferedWriter errors) throws IOException {
+        rowsFailed++;
+        if (firstErrors.size() < maxKeptErrors) {
+            firstErrors.add("Line " + lineNumber + ": " + message);
+        }
+        errors.write(lineNumber + ",\"" + message.replace("\"", "\"\"") + "\"");
+        errors.newLine();
+    }
+
+    public long getRowsRead() { return rowsRead; }
+
+    public long getRowsImported() { return rowsImported; }
+
+    public long getRowsFailed() { return rowsFailed; }
+
+    /** The first rejected rows, as "Line n: reason". */
+    public List<String> getFirstErrors() { return Collections.unmodifiableList(firstErrors); }
+
+    /** CSV file listing every rejected row and why. */
+    public Path getErrorFile() { return errorFile; }
+}
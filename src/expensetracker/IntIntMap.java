@@ -0,0 +1,112 @@
+package expensetracker;
+
+/**
+ * A map from int to non-negative int in two flat arrays (open addressing, linear
+ * probing), for indexes beside the primitive columns of {@link ColumnarLedger} and
+ * {@link SearchIndex}: no object per entry, unlike a {@code HashMap<Integer, Integer>}.
+ * Not thread-safe; its owners synchronize.
+ */
+final class IntIntMap {
+
+    /** Returned by {@link #get} and {@link #remove} for a key that is not in the map. */
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    // value + 1 per slot, so the zeroed array means "empty" and every key, 0 included, is usable
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    // Fibonacci hashing: the top bits of key * 2^32/phi pick the slot
+    private int shift = 32 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    private int size = 0;
+
+    int size() {
+        return size;
+    }
+
+    /** The value for the key, or {@link #MISSING}. */
+    int get(int key) {
+        for (int i = home(key); values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+        }
+        return MISSING;
+    }
+
+    /** Maps the key to a value of 0 or more, replacing any previous value. */
+    void put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int i = home(key);
+        for (; values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value + 1;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value + 1;
+        // Kept at most half full, so probe runs stay short
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /** Removes the key. @return Its value, or {@link #MISSING} if it was not in the map. */
+    int remove(int key) {
+        int i = home(key);
+        while (values[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == 0) {
+            return MISSING;
+        }
+        int removed = values[i] - 1;
+
+        // Shift later entries of the probe run back into the gap, so lookups never stop early
+        int gap = i;
+        for (int j = (gap + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+            int home = home(keys[j]);
+            boolean reachable = gap <= j ? home > gap && home <= j : home > gap || home <= j;
+            if (!reachable) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = 0;
+        size--;
+        return removed;
+    }
+
+    private int home(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        shift--;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int j = home(oldKeys[i]);
+                while (values[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IntIntMap[size=" + size + ", capacity=" + keys.length + "]";
+    }
+}
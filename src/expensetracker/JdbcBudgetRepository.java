@@ -0,0 +1,101 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BudgetRepository} over the connection pool of {@link DatabaseManager}.
+ */
+public class JdbcBudgetRepository implements BudgetRepository {
+
+    /**
+     * Creates or replaces the monthly limit for one of the user's categories, stamped with
+     * the edit time. On the central database every edit bumps the version; a replica keeps
+     * the central version it last saw and queues the edit for {@link ReplicaSync}, which
+     * bumps it when the edit is accepted.
+     */
+    @Override
+    public void saveBudget(int userId, String category, double limit) throws SQLException {
+        // SQL: INSERT OR UPDATE if the category already exists for this user
+        String sql = "INSERT INTO budgets (category, monthly_limit, user_id, version, updated_at) VALUES (?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE monthly_limit = VALUES(monthly_limit), updated_at = VALUES(updated_at), " +
+                "version = version + ?";
+        int versionStep = ReplicaOutbox.isActive() ? 0 : 1;
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.BUDGET_SAVE);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, category);
+                pstmt.setDouble(2, limit);
+                pstmt.setInt(3, userId);
+                pstmt.setInt(4, versionStep);
+                pstmt.setLong(5, System.currentTimeMillis());
+                pstmt.setInt(6, versionStep);
+
+                timer.rows(pstmt.executeUpdate());
+
+                if (ReplicaOutbox.isActive()) {
+                    ReplicaOutbox.recordBudget(conn, userId, category, loadVersion(conn, userId, category));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        BudgetAlertEngine.getInstance().recordLimit(userId, category, limit);
+        DataVersion.bump();
+        ReplicaSync.requestSync();
+    }
+
+    private static int loadVersion(Connection conn, int userId, String category) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT version FROM budgets WHERE user_id = ? AND category = ?")) {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, category);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Loads every budget of the user with its spend for the given month. The spend is a
+     * primary-key lookup into the monthly rollup, so the cost does not grow with history.
+     */
+    @Override
+    public List<BudgetStatus> loadBudgetStatus(int userId, YearMonth month) throws SQLException {
+        String sql = "SELECT b.category, b.monthly_limit, COALESCE(m.total, 0) AS total_spent " +
+                "FROM budgets b " +
+                "LEFT JOIN monthly_category_totals m ON m.user_id = b.user_id AND m.`year_month` = ? " +
+                "AND m.category = b.category AND m.type = 'Expense' " +
+                "WHERE b.user_id = ?"; // Filter budgets by user ID
+
+        List<BudgetStatus> statuses = new ArrayList<>();
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.BUDGET_STATUS);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, MonthlyRollup.yearMonth(month));
+            pstmt.setInt(2, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    statuses.add(new BudgetStatus(
+                            rs.getString("category"),
+                            rs.getDouble("monthly_limit"),
+                            rs.getDouble("total_spent")));
+                }
+            }
+            timer.rows(statuses.size());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,102 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RecurringRepository} over the connection pool of {@link DatabaseManager}.
+ * On the replica backend the templates are not synced: they stay in the local database,
+ * and only the transactions they write are pushed to the central one.
+ */
+public class JdbcRecurringRepository implements RecurringRepository {
+
+    static final String SELECT_COLUMNS =
+            "SELECT recurring_id, user_id, type, amount, category, description, frequency, interval_days, " +
+            "start_date, next_date FROM recurring_transactions ";
+
+    @Override
+    public RecurringTransaction createRecurring(int userId, String type, double amount, String category,
+                                                String description, RecurringTransaction.Frequency frequency,
+                                                int intervalDays, LocalDate startDate) throws SQLException {
+        String sql = "INSERT INTO recurring_transactions (user_id, type, amount, category, description, frequency, " +
+                "interval_days, start_date, next_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.RECURRING_SAVE);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, type);
+            pstmt.setDouble(3, amount);
+            pstmt.setString(4, category);
+            pstmt.setString(5, description);
+            pstmt.setString(6, frequency.name());
+            pstmt.setInt(7, intervalDays);
+            pstmt.setDate(8, Date.valueOf(startDate));
+            pstmt.setDate(9, Date.valueOf(startDate));
+            timer.rows(pstmt.executeUpdate());
+            DataVersion.bump();
+
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                int id = keys.next() ? keys.getInt(1) : -1;
+                return new RecurringTransaction(id, userId, type, amount, category, description, frequency,
+                        intervalDays, startDate, startDate);
+            }
+        }
+    }
+
+    @Override
+    public List<RecurringTransaction> loadRecurring(int userId) throws SQLException {
+        List<RecurringTransaction> templates = new ArrayList<>();
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.RECURRING_LOAD);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_COLUMNS + "WHERE user_id = ? ORDER BY recurring_id")) {
+
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    templates.add(readRecurring(rs));
+                }
+            }
+            timer.rows(templates.size());
+        }
+        return templates;
+    }
+
+    @Override
+    public boolean deleteRecurring(int userId, int recurringId) throws SQLException {
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.RECURRING_SAVE);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "DELETE FROM recurring_transactions WHERE recurring_id = ? AND user_id = ?")) {
+
+            pstmt.setInt(1, recurringId);
+            pstmt.setInt(2, userId);
+            int removed = pstmt.executeUpdate();
+            timer.rows(removed);
+            DataVersion.bump();
+            return removed > 0;
+        }
+    }
+
+    static RecurringTransaction readRecurring(ResultSet rs) throws SQLException {
+        return new RecurringTransaction(
+                rs.getInt("recurring_id"),
+                rs.getInt("user_id"),
+                rs.getString("type"),
+                rs.getDouble("amount"),
+                rs.getString("category"),
+                rs.getString("description"),
+                RecurringTransaction.Frequency.valueOf(rs.getString("frequency")),
+                rs.getInt("interval_days"),
+                rs.getDate("start_date").toLocalDate(),
+                rs.getDate("next_date").toLocalDate());
+    }
+}
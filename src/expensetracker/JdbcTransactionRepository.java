@@ -0,0 +1,669 @@
+package expensetracker;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * {@link TransactionRepository} over the connection pool of {@link DatabaseManager}.
+ * The SQL sticks to what MySQL and the embedded engine (in MySQL mode) both accept,
+ * so the same class serves every {@link StorageBackend}.
+ */
+public class JdbcTransactionRepository implements TransactionRepository {
+
+    private static final Logger LOG = Logger.getLogger(JdbcTransactionRepository.class.getName());
+
+    // Ids per IN list when deleting many rows, well under any driver's placeholder limit
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT transaction_id, type, category, amount, transaction_date, description FROM transactions ";
+
+    /**
+     * Inserts a transaction for a user and adds it to the monthly rollup in the same
+     * database transaction.
+     * @return The stored row, including its generated transaction_id.
+     */
+    @Override
+    public TransactionRecord insertTransaction(int userId, String type, double amount, String category,
+                                               String description, LocalDate date) throws SQLException {
+        String sql = "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String entryId = UUID.randomUUID().toString();
+
+        TransactionRecord saved;
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.INSERT);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, type);
+                pstmt.setDouble(3, amount);
+                pstmt.setString(4, category);
+                pstmt.setString(5, description);
+                pstmt.setDate(6, Date.valueOf(date));
+                pstmt.setString(7, entryId);
+
+                pstmt.executeUpdate();
+
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    int id = keys.next() ? keys.getInt(1) : -1;
+                    saved = new TransactionRecord(id, type, category, amount, date, description);
+                }
+
+                MonthlyRollup.apply(conn, userId, saved, 1);
+                ReplicaOutbox.recordTransaction(conn, userId, ReplicaOutbox.INSERT, entryId);
+                conn.commit();
+                timer.rows(1);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        TransactionWrites.inserted(userId, saved);
+        DataVersion.bump();
+        ReplicaSync.requestSync();
+        return saved;
+    }
+
+    /**
+     * Stores a batch of journaled transactions with a single commit. A duplicate entry id
+     * (the entry was committed before the journal was trimmed) or a vanished user only
+     * fails its own statement, so the rest of the batch still goes in. A value the
+     * database cannot store fails the whole batch with a data error (SQLState class 22),
+     * so the journal can set that entry aside instead of losing it.
+     */
+    @Override
+    public List<TransactionRecord> insertTransactions(List<PendingTransaction> entries) throws SQLException {
+        String sql = "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        List<TransactionRecord> saved = new ArrayList<>(entries.size());
+        int stored = 0;
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.INSERT);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (PendingTransaction entry : entries) {
+                    pstmt.setInt(1, entry.getUserId());
+                    pstmt.setString(2, entry.getType());
+                    pstmt.setDouble(3, entry.getAmount());
+                    pstmt.setString(4, entry.getCategory());
+                    pstmt.setString(5, entry.getDescription());
+                    pstmt.setDate(6, Date.valueOf(entry.getDate()));
+                    pstmt.setString(7, entry.getEntryId());
+
+                    try {
+                        pstmt.executeUpdate();
+                    } catch (SQLException e) {
+                        if (!(e instanceof SQLIntegrityConstraintViolationException)
+                                && (e.getSQLState() == null || !e.getSQLState().startsWith("23"))) {
+                            throw e;
+                        }
+                        LOG.warning("Skipped journal entry " + entry.getEntryId() + ": " + e.getMessage());
+                        saved.add(null);
+                        continue;
+                    }
+
+                    TransactionRecord record;
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        int id = keys.next() ? keys.getInt(1) : -1;
+                        record = new TransactionRecord(id, entry.getType(), entry.getCategory(), entry.getAmount(),
+                                entry.getDate(), entry.getDescription());
+                    }
+                    MonthlyRollup.apply(conn, entry.getUserId(), record, 1);
+                    ReplicaOutbox.recordTransaction(conn, entry.getUserId(), ReplicaOutbox.INSERT, entry.getEntryId());
+                    saved.add(record);
+                    stored++;
+                }
+                conn.commit();
+                timer.rows(stored);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (saved.get(i) != null) {
+                TransactionWrites.inserted(entries.get(i).getUserId(), saved.get(i));
+            }
+        }
+        DataVersion.bump();
+        ReplicaSync.requestSync();
+        return saved;
+    }
+
+    /**
+     * Deletes one of the user's transactions and takes it out of the monthly rollup in
+     * the same database transaction. The row is read back (and locked) first, so the
+     * rollup and the cache are corrected with the stored values, not the caller's copy.
+     * The row's entry id is kept as a tombstone, so replicas delete their copy too.
+     * @return true if a row was removed.
+     */
+    @Override
+    public boolean deleteTransaction(int userId, TransactionRecord transaction) throws SQLException {
+        String selectSql = "SELECT transaction_id, type, category, amount, transaction_date, description, entry_id " +
+                "FROM transactions WHERE transaction_id = ? AND user_id = ? FOR UPDATE";
+        String deleteSql = "DELETE FROM transactions WHERE transaction_id = ? AND user_id = ?";
+        String tombstoneSql = "INSERT INTO sync_tombstones (entry_id, user_id) VALUES (?, ?)";
+
+        TransactionRecord stored;
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.DELETE);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql);
+                 PreparedStatement tombstone = conn.prepareStatement(tombstoneSql)) {
+
+                select.setInt(1, transaction.getTransactionId());
+                select.setInt(2, userId); // Filter by user ID
+                String entryId = null;
+                try (ResultSet rs = select.executeQuery()) {
+                    stored = null;
+                    if (rs.next()) {
+                        stored = readTransaction(rs);
+                        entryId = rs.getString("entry_id");
+                    }
+                }
+                if (stored == null) {
+                    conn.rollback();
+                    timer.rows(0);
+                    return false;
+                }
+
+                delete.setInt(1, stored.getTransactionId());
+                delete.setInt(2, userId);
+                delete.executeUpdate();
+
+                if (entryId != null) {
+                    tombstone.setString(1, entryId);
+                    tombstone.setInt(2, userId);
+                    tombstone.executeUpdate();
+                }
+
+                MonthlyRollup.apply(conn, userId, stored, -1);
+                ReplicaOutbox.recordTransaction(conn, userId, ReplicaOutbox.DELETE, entryId);
+                conn.commit();
+                timer.rows(1);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        TransactionWrites.deleted(userId, stored);
+        DataVersion.bump();
+        ReplicaSync.requestSync();
+        return true;
+    }
+
+    /**
+     * Deletes many of the user's transactions in one database transaction: the rows are
+     * locked and read with one IN-list SELECT per chunk of ids, removed with one DELETE
+     * per chunk, and the tombstones, rollup corrections and outbox entries go in batches.
+     * A few hundred rows cost a handful of statements instead of a commit each.
+     * @return The rows that were removed.
+     */
+    @Override
+    public List<TransactionRecord> deleteTransactions(int userId, List<Integer> transactionIds) throws SQLException {
+        if (transactionIds.isEmpty()) {
+            return List.of();
+        }
+        String tombstoneSql = "INSERT INTO sync_tombstones (entry_id, user_id) VALUES (?, ?)";
+
+        List<TransactionRecord> deleted = new ArrayList<>();
+        List<String> entryIds = new ArrayList<>();
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.DELETE);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                for (int start = 0; start < transactionIds.size(); start += DELETE_CHUNK_SIZE) {
+                    List<Integer> chunk = transactionIds.subList(start, Math.min(start + DELETE_CHUNK_SIZE, transactionIds.size()));
+                    String inList = "IN (" + "?, ".repeat(chunk.size() - 1) + "?)";
+
+                    try (PreparedStatement select = conn.prepareStatement(
+                            "SELECT transaction_id, type, category, amount, transaction_date, description, entry_id " +
+                            "FROM transactions WHERE user_id = ? AND transaction_id " + inList + " FOR UPDATE")) {
+                        bindIds(select, userId, chunk);
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                deleted.add(readTransaction(rs));
+                                String entryId = rs.getString("entry_id");
+                                if (entryId != null) {
+                                    entryIds.add(entryId);
+                                }
+                            }
+                        }
+                    }
+
+                    try (PreparedStatement delete = conn.prepareStatement(
+                            "DELETE FROM transactions WHERE user_id = ? AND transaction_id " + inList)) {
+                        bindIds(delete, userId, chunk);
+                        delete.executeUpdate();
+                    }
+                }
+
+                if (!entryIds.isEmpty()) {
+                    try (PreparedStatement tombstone = conn.prepareStatement(tombstoneSql)) {
+                        for (String entryId : entryIds) {
+                            tombstone.setString(1, entryId);
+                            tombstone.setInt(2, userId);
+                            tombstone.addBatch();
+                        }
+                        tombstone.executeBatch();
+                    }
+                }
+
+                MonthlyRollup.applyAll(conn, userId, deleted, -1);
+                ReplicaOutbox.recordDeletes(conn, userId, entryIds);
+                conn.commit();
+                timer.rows(deleted.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        for (TransactionRecord row : deleted) {
+            TransactionWrites.deleted(userId, row);
+        }
+        if (!deleted.isEmpty()) {
+            DataVersion.bump();
+            ReplicaSync.requestSync();
+        }
+        return deleted;
+    }
+
+    private static void bindIds(PreparedStatement pstmt, int userId, List<Integer> transactionIds) throws SQLException {
+        pstmt.setInt(1, userId);
+        for (int i = 0; i < transactionIds.size(); i++) {
+            pstmt.setInt(i + 2, transactionIds.get(i));
+        }
+    }
+
+    /**
+     * Counts a user's transactions, so the reports table can size its scrollbar
+     * without loading any rows.
+     */
+    @Override
+    public int countTransactions(int userId) throws SQLException {
+        return countTransactions(userId, TransactionQuery.ALL);
+    }
+
+    /** Counts the rows that match the query's filters, with the same WHERE clause as its pages. */
+    @Override
+    public int countTransactions(int userId, TransactionQuery query) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM transactions " + whereClause(userId, query, params);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.REPORT_COUNT);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindParams(pstmt, params, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                timer.rows(1);
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public List<TransactionRecord> loadTransactionPage(int userId, TransactionRecord after, int pageSize) throws SQLException {
+        return loadTransactionPage(userId, TransactionQuery.ALL, after, pageSize);
+    }
+
+    /**
+     * Loads one page of the rows matching the query, using keyset pagination: the page
+     * starts right after {@code after} in the sort order (sort columns, then
+     * transaction_id), so the database seeks straight to it instead of skipping rows.
+     * @param after The last row of the previous page, or null for the first page.
+     */
+    @Override
+    public List<TransactionRecord> loadTransactionPage(int userId, TransactionQuery query, TransactionRecord after,
+                                                       int pageSize) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(whereClause(userId, query, params));
+        if (after != null) {
+            sql.append(" AND ").append(keysetCondition(query, after, params));
+        }
+        sql.append(orderByClause(query)).append(" LIMIT ?");
+        params.add(pageSize);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.REPORT_LOAD);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            bindParams(pstmt, params, 1);
+            return readTransactions(pstmt, timer);
+        }
+    }
+
+    @Override
+    public List<TransactionRecord> loadTransactionPageAt(int userId, int offset, int pageSize) throws SQLException {
+        return loadTransactionPageAt(userId, TransactionQuery.ALL, offset, pageSize);
+    }
+
+    /**
+     * Loads the page at a row offset. Only used when the user drags the scrollbar to a
+     * page whose predecessor has never been loaded, so no keyset cursor exists for it yet.
+     */
+    @Override
+    public List<TransactionRecord> loadTransactionPageAt(int userId, TransactionQuery query, int offset, int pageSize)
+            throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = SELECT_COLUMNS + whereClause(userId, query, params) + orderByClause(query) + " LIMIT ? OFFSET ?";
+        params.add(pageSize);
+        params.add(offset);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.REPORT_LOAD);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindParams(pstmt, params, 1);
+            return readTransactions(pstmt, timer);
+        }
+    }
+
+    /**
+     * The WHERE clause for the query's filters, always led by user_id so one of the
+     * (user_id, ...) indexes applies. Only set filters add a condition, so an unfiltered
+     * history produces the same statement as before filters existed.
+     */
+    private static String whereClause(int userId, TransactionQuery query, List<Object> params) {
+        StringBuilder where = new StringBuilder("WHERE user_id = ?");
+        params.add(userId);
+        if (query.getType() != null) {
+            where.append(" AND type = ?");
+            params.add(query.getType());
+        }
+        if (query.getCategory() != null) {
+            where.append(" AND category = ?");
+            params.add(query.getCategory());
+        }
+        if (query.getFromDate() != null) {
+            where.append(" AND transaction_date >= ?");
+            params.add(Date.valueOf(query.getFromDate()));
+        }
+        if (query.getToDate() != null) {
+            where.append(" AND transaction_date <= ?");
+            params.add(Date.valueOf(query.getToDate()));
+        }
+        if (query.getMinAmount() != null) {
+            where.append(" AND amount >= ?");
+            params.add(BigDecimal.valueOf(query.getMinAmount()));
+        }
+        if (query.getMaxAmount() != null) {
+            where.append(" AND amount <= ?");
+            params.add(BigDecimal.valueOf(query.getMaxAmount()));
+        }
+        return where.toString();
+    }
+
+    private static String orderByClause(TransactionQuery query) {
+        String direction = query.isDescending() ? " DESC" : " ASC";
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (String column : query.getSort().getColumns()) {
+            orderBy.append(column).append(direction).append(", ");
+        }
+        return orderBy.append("transaction_id").append(direction).toString();
+    }
+
+    /**
+     * Rows strictly after {@code after} in the sort order, spelled out column by column
+     * ({@code c1 < ? OR (c1 = ? AND (c2 < ? OR ...))}) so it works on every backend.
+     */
+    private static String keysetCondition(TransactionQuery query, TransactionRecord after, List<Object> params) {
+        String op = query.isDescending() ? " < ?" : " > ?";
+        String[] columns = query.getSort().getColumns();
+
+        StringBuilder condition = new StringBuilder();
+        for (String column : columns) {
+            Object value = sortValue(column, after);
+            condition.append("(").append(column).append(op).append(" OR (").append(column).append(" = ? AND ");
+            params.add(value);
+            params.add(value);
+        }
+        condition.append("transaction_id").append(op);
+        params.add(after.getTransactionId());
+        condition.append("))".repeat(columns.length));
+        return condition.toString();
+    }
+
+    private static Object sortValue(String column, TransactionRecord row) {
+        switch (column) {
+            case "transaction_date": return Date.valueOf(row.getDate());
+            case "amount": return BigDecimal.valueOf(row.getAmount());
+            case "category": return row.getCategory();
+            case "type": return row.getType();
+            default: throw new IllegalArgumentException("Not a sort column: " + column);
+        }
+    }
+
+    private static void bindParams(PreparedStatement pstmt, List<Object> params, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        for (Object param : params) {
+            pstmt.setObject(index++, param);
+        }
+    }
+
+    /**
+     * Ranks the matches in the user's {@link SearchIndex}, then reads just those rows by
+     * primary key. Until the index is built (or with it turned off) it falls back to a
+     * LIKE scan over the user's rows, newest first.
+     */
+    @Override
+    public SearchResult searchTransactions(int userId, String query, int limit) throws SQLException {
+        SearchIndex index = SearchIndexStore.getInstance().get(userId);
+        if (index == null) {
+            return searchWithLike(userId, query, limit);
+        }
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.SEARCH)) {
+            SearchIndex.Hits hits = index.search(query, limit);
+            List<Integer> ids = hits.getTransactionIds();
+            timer.rows(ids.size());
+            if (ids.isEmpty()) {
+                return new SearchResult(List.of(), 0);
+            }
+
+            // Padded to a power of two with the last id, so a handful of statements cover every result size
+            int placeholders = Math.max(1, Integer.highestOneBit(ids.size() - 1) << 1);
+            String sql = SELECT_COLUMNS +
+                    "WHERE user_id = ? AND transaction_id IN (" + "?, ".repeat(placeholders - 1) + "?)";
+
+            Map<Integer, TransactionRecord> byId = new HashMap<>();
+            try (Connection conn = DatabaseManager.openConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, userId);
+                for (int i = 0; i < placeholders; i++) {
+                    pstmt.setInt(i + 2, ids.get(Math.min(i, ids.size() - 1)));
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        TransactionRecord row = readTransaction(rs);
+                        byId.put(row.getTransactionId(), row);
+                    }
+                }
+            }
+
+            // Back into rank order; a row deleted since the search is simply left out
+            List<TransactionRecord> rows = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                TransactionRecord row = byId.get(id);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            return new SearchResult(rows, hits.getTotalMatches());
+        }
+    }
+
+    private SearchResult searchWithLike(int userId, String query, int limit) throws SQLException {
+        List<String> words = SearchIndex.tokenize(query);
+        if (words.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS + "WHERE user_id = ?");
+        for (int i = 0; i < words.size(); i++) {
+            sql.append(" AND (LOWER(description) LIKE ? OR LOWER(category) LIKE ?)");
+        }
+        sql.append(" ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?");
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.SEARCH);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            pstmt.setInt(index++, userId);
+            for (String word : words) {
+                // Words are letters and digits only, so nothing in them needs escaping for LIKE
+                String pattern = "%" + word + "%";
+                pstmt.setString(index++, pattern);
+                pstmt.setString(index++, pattern);
+            }
+            pstmt.setInt(index, limit);
+
+            List<TransactionRecord> rows = readTransactions(pstmt, timer);
+            // The scan stops at the limit, so the full count is not known
+            return new SearchResult(rows, rows.size());
+        }
+    }
+
+    /**
+     * Reads the income total, the expense total, the expense breakdown per category and
+     * the given month's spend per category with a single statement over the user's
+     * {@link MonthlyRollup} rows. Conditional aggregation yields one row per category
+     * with all sums; the totals are the column sums of those rows. The cost grows with
+     * the number of months and categories, not with the number of transactions.
+     */
+    @Override
+    public DashboardSnapshot loadDashboardSnapshot(int userId, YearMonth month) throws SQLException {
+        String sql = "SELECT category, " +
+                "SUM(CASE WHEN type = 'Income' THEN total ELSE 0 END) AS income, " +
+                "SUM(CASE WHEN type = 'Expense' THEN total ELSE 0 END) AS expense, " +
+                "SUM(CASE WHEN type = 'Expense' THEN transaction_count ELSE 0 END) AS expense_count, " +
+                "SUM(CASE WHEN type = 'Expense' AND `year_month` = ? THEN total ELSE 0 END) AS month_spent " +
+                "FROM monthly_category_totals " +
+                "WHERE user_id = ? " +
+                "GROUP BY category";
+
+        double totalIncome = 0.0;
+        double totalExpenses = 0.0;
+        Map<String, Double> expensesByCategory = new LinkedHashMap<>();
+        Map<String, Double> monthSpendByCategory = new LinkedHashMap<>();
+
+        // The pie chart and the summary cards share this one query
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.DASHBOARD_SUM);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, MonthlyRollup.yearMonth(month));
+            pstmt.setInt(2, userId);
+
+            int rows = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    String category = rs.getString("category");
+                    double expense = rs.getDouble("expense");
+                    totalIncome += rs.getDouble("income");
+                    totalExpenses += expense;
+
+                    // Categories that only ever had income stay out of the pie chart
+                    if (rs.getLong("expense_count") > 0) {
+                        expensesByCategory.put(category, expense);
+                    }
+                    double monthSpent = rs.getDouble("month_spent");
+                    if (monthSpent != 0) {
+                        monthSpendByCategory.put(category, monthSpent);
+                    }
+                }
+            }
+            timer.rows(rows);
+        }
+        return new DashboardSnapshot(totalIncome, totalExpenses, expensesByCategory, month, monthSpendByCategory);
+    }
+
+    /**
+     * Reads the trends from the rollups: at most two rows per day from
+     * {@code daily_totals} and one per month and category from
+     * {@code monthly_category_totals}, never the transactions themselves.
+     */
+    @Override
+    public TrendData loadTrends(int userId) throws SQLException {
+        String dailySql = "SELECT txn_day, type, total FROM daily_totals WHERE user_id = ? ORDER BY txn_day";
+        String monthlySql = "SELECT `year_month`, category, total FROM monthly_category_totals " +
+                "WHERE user_id = ? AND type = 'Expense' ORDER BY `year_month`";
+
+        TrendData trends = new TrendData();
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.TRENDS);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement daily = conn.prepareStatement(dailySql);
+             PreparedStatement monthly = conn.prepareStatement(monthlySql)) {
+
+            int rows = 0;
+            daily.setInt(1, userId);
+            try (ResultSet rs = daily.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    trends.addDay(rs.getDate("txn_day").toLocalDate(), rs.getString("type"), rs.getDouble("total"));
+                }
+            }
+
+            monthly.setInt(1, userId);
+            try (ResultSet rs = monthly.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    trends.addMonthExpense(YearMonth.parse(rs.getString("year_month")), rs.getString("category"),
+                            rs.getDouble("total"));
+                }
+            }
+            timer.rows(rows);
+        }
+        return trends;
+    }
+
+    private static List<TransactionRecord> readTransactions(PreparedStatement pstmt, QueryTimer timer) throws SQLException {
+        List<TransactionRecord> rows = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(readTransaction(rs));
+            }
+        }
+        timer.rows(rows.size());
+        return rows;
+    }
+
+    private static TransactionRecord readTransaction(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("transaction_date");
+        return new TransactionRecord(
+                rs.getInt("transaction_id"),
+                rs.getString("type"),
+                rs.getString("category"),
+                rs.getDouble("amount"),
+                date == null ? null : date.toLocalDate(),
+                rs.getString("description"));
+    }
+}
@@ -0,0 +1,123 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * {@link UserRepository} over the connection pool of {@link DatabaseManager}, or any other
+ * {@link ConnectionSource}.
+ * Passwords are stored as {@link PasswordHasher} hashes; the hashing itself runs on the
+ * hasher's bounded pool, never while a connection is held.
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    private final PasswordHasher hasher = PasswordHasher.getInstance();
+    private final ConnectionSource connections;
+
+    public JdbcUserRepository() {
+        this(DatabaseManager::openConnection);
+    }
+
+    /** A repository over another database, e.g. the central one behind a {@link ReplicaSync} replica. */
+    public JdbcUserRepository(ConnectionSource connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Fetches the stored hash with one lookup on the unique username index, verifies it,
+     * and upgrades the stored value if it is plaintext or was hashed at another cost.
+     */
+    @Override
+    public int authenticate(String username, String password) throws SQLException {
+        String sql = "SELECT user_id, password FROM users WHERE username = ?";
+
+        int userId = -1;
+        String stored = null;
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.AUTH);
+             Connection conn = connections.open();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, username);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    userId = rs.getInt("user_id"); // The user's unique ID
+                    stored = rs.getString("password");
+                }
+                timer.rows(userId == -1 ? 0 : 1);
+            }
+        }
+
+        if (userId == -1) {
+            // As slow as a wrong password, so timing does not reveal which usernames exist
+            hasher.verifyUnknownUser(password);
+            return -1;
+        }
+        if (!hasher.verify(password, stored)) {
+            return -1;
+        }
+        if (hasher.needsRehash(stored)) {
+            rehash(userId, stored, password);
+        }
+        return userId;
+    }
+
+    // Only replaces the value that was verified, so a concurrent password change wins
+    private void rehash(int userId, String stored, String password) throws SQLException {
+        String sql = "UPDATE users SET password = ? WHERE user_id = ? AND password = ?";
+        String rehashed = hasher.hash(password);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.PASSWORD_UPDATE);
+             Connection conn = connections.open();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, rehashed);
+            pstmt.setInt(2, userId);
+            pstmt.setString(3, stored);
+            timer.rows(pstmt.executeUpdate());
+        }
+    }
+
+    @Override
+    public boolean createUser(String username, String password, String email) throws SQLException {
+        String sql = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
+        String hashed = hasher.hash(password);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.USER_CREATE);
+             Connection conn = connections.open();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, username);
+            pstmt.setString(2, hashed);
+            pstmt.setString(3, email);
+
+            int rows = pstmt.executeUpdate();
+            timer.rows(rows);
+            return rows > 0;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // The unique key on username: both drivers report a duplicate entry this way
+            return false;
+        }
+    }
+
+    @Override
+    public boolean updatePassword(String username, String newPassword) throws SQLException {
+        String sql = "UPDATE users SET password = ? WHERE username = ?";
+        String hashed = hasher.hash(newPassword);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.PASSWORD_UPDATE);
+             Connection conn = connections.open();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, hashed);
+            pstmt.setString(2, username);
+
+            int rows = pstmt.executeUpdate();
+            timer.rows(rows);
+            return rows > 0;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package expensetracker;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Per-user cache of the aggregates behind the dashboard and budget screens.
+ * Entries are loaded with one query, then kept current by applying each insert and
+ * delete as a delta, so refreshing the dashboard after a write needs no re-read.
+ * The cache holds at most a fixed number of users (least recently used are evicted)
+ * and revalidates an entry against the database once its TTL has passed.
+ * Its hit and miss counts are published over JMX, see {@link LedgerCacheMXBean}.
+ */
+public class LedgerCache implements TransactionWriteListener, LedgerCacheMXBean {
+
+    /** Reads a fresh snapshot of a user's ledger from the database. */
+    @FunctionalInterface
+    public interface Loader {
+        DashboardSnapshot load(int userId, YearMonth month) throws SQLException;
+    }
+
+    private static final Logger LOG = Logger.getLogger(LedgerCache.class.getName());
+
+    private static final int MAX_USERS = Integer.getInteger("budgetbuddy.cache.maxUsers", 16);
+    private static final long TTL_MS = Long.getLong("budgetbuddy.cache.ttlMs", 300_000);
+
+    private static final LedgerCache INSTANCE =
+            new LedgerCache(LedgerCache::loadSnapshot, MAX_USERS, TTL_MS);
+
+    static {
+        TransactionWrites.register(INSTANCE);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("expensetracker:type=LedgerCache"));
+        } catch (JMException | RuntimeException e) {
+            // The cache still works without JMX
+            LOG.warning("Could not publish ledger cache counters over JMX: " + e.getMessage());
+        }
+    }
+
+    private final Loader loader;
+    private final long ttlMillis;
+    private final Map<Integer, Entry> entries;
+
+    // Bumped on every applied delta, so a load that raced with a write is not cached.
+    private long writeSequence = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public LedgerCache(Loader loader, int maxUsers, long ttlMillis) {
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > maxUsers) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The cache shared by every panel. */
+    public static LedgerCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Computed in memory once the user's columnar ledger is loaded, read from the rollup until then
+    private static DashboardSnapshot loadSnapshot(int userId, YearMonth month) throws SQLException {
+        ColumnarLedger ledger = ColumnarStore.getInstance().get(userId);
+        return ledger != null ? ledger.toSnapshot(month) : Repositories.transactions().loadDashboardSnapshot(userId, month);
+    }
+
+    /**
+     * Returns the user's snapshot, loading it from the database on a miss or once the
+     * cached copy is stale. Call this off the EDT.
+     */
+    public DashboardSnapshot getSnapshot(int userId) throws SQLException {
+        DashboardSnapshot cached = peek(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        YearMonth month = YearMonth.now();
+        long sequenceAtLoad;
+        synchronized (this) {
+            misses++;
+            sequenceAtLoad = writeSequence;
+        }
+
+        DashboardSnapshot loaded = loader.load(userId, month);
+
+        synchronized (this) {
+            if (writeSequence == sequenceAtLoad) {
+                entries.put(userId, new Entry(loaded));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the user's snapshot only if a fresh copy is cached, never touching the
+     * database, so it is safe to call on the EDT.
+     * @return The cached snapshot, or null on a miss.
+     */
+    public synchronized DashboardSnapshot peek(int userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null || !entry.isFresh(ttlMillis)) {
+            return null;
+        }
+        hits++;
+        return entry.toSnapshot();
+    }
+
+    /** Adds a newly inserted transaction to the user's cached totals. */
+    @Override
+    public synchronized void recordInsert(int userId, TransactionRecord transaction) {
+        applyDelta(userId, transaction, 1);
+    }
+
+    /** Takes a deleted transaction back out of the user's cached totals. */
+    @Override
+    public synchronized void recordDelete(int userId, TransactionRecord transaction) {
+        applyDelta(userId, transaction, -1);
+    }
+
+    /** Drops the user's entry, e.g. after a bulk change that is cheaper to re-read than to replay. */
+    public synchronized void invalidate(int userId) {
+        writeSequence++;
+        entries.remove(userId);
+    }
+
+    /** The next read re-loads the user's totals. */
+    @Override
+    public void reload(int userId) {
+        invalidate(userId);
+    }
+
+    /** Drops every entry, e.g. after the rollup the entries are loaded from was rebuilt. */
+    public synchronized void invalidateAll() {
+        writeSequence++;
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int getUsers() { return entries.size(); }
+
+    @Override
+    public synchronized long getHits() { return hits; }
+
+    @Override
+    public synchronized long getMisses() { return misses; }
+
+    @Override
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : 100.0 * hits / lookups;
+    }
+
+    @Override
+    public synchronized long getEvictions() { return evictions; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("LedgerCache[users=%d, hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d]",
+                entries.size(), hits, misses, getHitRatio(), evictions);
+    }
+
+    private void applyDelta(int userId, TransactionRecord transaction, int sign) {
+        writeSequence++;
+        Entry entry = entries.get(userId);
+        if (entry != null) {
+            entry.apply(transaction, sign);
+        }
+    }
+
+    /** Mutable copy of one user's aggregates. */
+    private static final class Entry {
+        private final long loadedAt = System.currentTimeMillis();
+        private final YearMonth spendMonth;
+        private double totalIncome;
+        private double totalExpenses;
+        private final Map<String, Double> expensesByCategory;
+        private final Map<String, Double> monthSpendByCategory;
+
+        Entry(DashboardSnapshot snapshot) {
+            this.spendMonth = snapshot.getSpendMonth();
+            this.totalIncome = snapshot.getTotalIncome();
+            this.totalExpenses = snapshot.getTotalExpenses();
+            this.expensesByCategory = new LinkedHashMap<>(snapshot.getExpensesByCategory());
+            this.monthSpendByCategory = new LinkedHashMap<>(snapshot.getMonthSpendByCategory());
+        }
+
+        boolean isFresh(long ttlMillis) {
+            // A new month changes what "this month's spend" means, so it forces a reload too.
+            return System.currentTimeMillis() - loadedAt < ttlMillis && spendMonth.equals(YearMonth.now());
+        }
+
+        void apply(TransactionRecord transaction, int sign) {
+            double amount = sign * transaction.getAmount();
+            if (!transaction.isExpense()) {
+                totalIncome += amount;
+                return;
+            }
+
+            totalExpenses += amount;
+            addTo(expensesByCategory, transaction.getCategory(), amount);
+            if (transaction.getDate() != null && YearMonth.from(transaction.getDate()).equals(spendMonth)) {
+                addTo(monthSpendByCategory, transaction.getCategory(), amount);
+            }
+        }
+
+        DashboardSnapshot toSnapshot() {
+            return new DashboardSnapshot(totalIncome, totalExpenses, expensesByCategory,
+                    spendMonth, monthSpendByCategory);
+        }
+
+        private static void addTo(Map<String, Double> totals, String category, double amount) {
+            double updated = totals.getOrDefault(category, 0.0) + amount;
+            // Deleting the last expense of a category removes its slice entirely
+            if (Math.abs(updated) < 0.005) {
+                totals.remove(category);
+            } else {
+                totals.put(category, updated);
+            }
+        }
+    }
+}
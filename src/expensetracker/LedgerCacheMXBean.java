@@ -0,0 +1,20 @@
+package expensetracker;
+
+/**
+ * JMX view of the shared {@link LedgerCache}, registered as
+ * {@code expensetracker:type=LedgerCache}. Counts cover everything since the app started.
+ */
+public interface LedgerCacheMXBean {
+
+    /** Users with a cached snapshot right now. */
+    int getUsers();
+
+    long getHits();
+
+    long getMisses();
+
+    /** Hits as a percentage of all lookups, 0 before the first one. */
+    double getHitRatio();
+
+    long getEvictions();
+}
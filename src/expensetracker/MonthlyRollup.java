@@ -0,0 +1,252 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@code monthly_category_totals}, a per-user rollup of the transactions table
+ * with one row per (month, category, type). Every insert and delete updates it in the
+ * same database transaction, so budget status and dashboard totals read a handful of
+ * rollup rows instead of scanning the user's whole history.
+ *
+ * {@code daily_totals} (one row per day and type) is kept the same way for the trends
+ * view, which needs finer buckets than a month but not per category.
+ *
+ * {@code year_month} holds "YYYY-MM" and is a reserved word in MySQL, hence the backticks.
+ *
+ * The tables are created and backfilled by migrations V3 and V7. Run
+ * {@code java expensetracker.MonthlyRollup [userId]} to rebuild them if they ever drift
+ * from the transactions table.
+ */
+public final class MonthlyRollup {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_category_totals (user_id, `year_month`, category, type, total, transaction_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), transaction_count = transaction_count + VALUES(transaction_count)";
+
+    private static final String PRUNE_SQL =
+            "DELETE FROM monthly_category_totals " +
+            "WHERE user_id = ? AND `year_month` = ? AND category = ? AND type = ? AND transaction_count <= 0";
+
+    private static final String DAILY_UPSERT_SQL =
+            "INSERT INTO daily_totals (user_id, txn_day, type, total, transaction_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), transaction_count = transaction_count + VALUES(transaction_count)";
+
+    private static final String DAILY_PRUNE_SQL =
+            "DELETE FROM daily_totals WHERE user_id = ? AND txn_day = ? AND type = ? AND transaction_count <= 0";
+
+    private static final String CLEAR_SQL = "DELETE FROM monthly_category_totals";
+    private static final String DAILY_CLEAR_SQL = "DELETE FROM daily_totals";
+
+    // Portable "YYYY-MM" formatting, so the rebuild does not depend on DATE_FORMAT
+    private static final String REBUILD_SQL =
+            "INSERT INTO monthly_category_totals (user_id, `year_month`, category, type, total, transaction_count) " +
+            "SELECT user_id, CONCAT(YEAR(transaction_date), '-', LPAD(MONTH(transaction_date), 2, '0')), " +
+            "category, type, SUM(amount), COUNT(*) " +
+            "FROM transactions ";
+
+    // Grouped by the selected expression, as in V3: H2 rejects GROUP BY YEAR(), MONTH() as soon as
+    // one group holds transactions from two different days
+    private static final String REBUILD_GROUP_BY =
+            "GROUP BY user_id, CONCAT(YEAR(transaction_date), '-', LPAD(MONTH(transaction_date), 2, '0')), category, type";
+
+    private static final String DAILY_REBUILD_SQL =
+            "INSERT INTO daily_totals (user_id, txn_day, type, total, transaction_count) " +
+            "SELECT user_id, transaction_date, type, SUM(amount), COUNT(*) FROM transactions ";
+
+    private static final String DAILY_REBUILD_GROUP_BY = "GROUP BY user_id, transaction_date, type";
+
+    private MonthlyRollup() {
+    }
+
+    /** The rollup key for a transaction date. */
+    public static String yearMonth(LocalDate date) {
+        return YearMonth.from(date).toString();
+    }
+
+    /** The rollup key for a month. */
+    public static String yearMonth(YearMonth month) {
+        return month.toString();
+    }
+
+    /**
+     * Adds one transaction to the rollup, or takes it out again when {@code sign} is -1.
+     * Must run on the connection (and inside the transaction) that wrote the row.
+     */
+    static void apply(Connection conn, int userId, TransactionRecord transaction, int sign) throws SQLException {
+        String month = yearMonth(transaction.getDate());
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_SQL)) {
+            bindUpsert(upsert, userId, month, transaction.getCategory(), transaction.getType(),
+                    sign * transaction.getAmount(), sign);
+            upsert.executeUpdate();
+        }
+        try (PreparedStatement upsert = conn.prepareStatement(DAILY_UPSERT_SQL)) {
+            bindDailyUpsert(upsert, userId, transaction.getDate(), transaction.getType(),
+                    sign * transaction.getAmount(), sign);
+            upsert.executeUpdate();
+        }
+
+        if (sign < 0) {
+            // The last transaction of a bucket is gone: drop the empty rows
+            try (PreparedStatement prune = conn.prepareStatement(PRUNE_SQL)) {
+                prune.setInt(1, userId);
+                prune.setString(2, month);
+                prune.setString(3, transaction.getCategory());
+                prune.setString(4, transaction.getType());
+                prune.executeUpdate();
+            }
+            try (PreparedStatement prune = conn.prepareStatement(DAILY_PRUNE_SQL)) {
+                prune.setInt(1, userId);
+                prune.setDate(2, Date.valueOf(transaction.getDate()));
+                prune.setString(3, transaction.getType());
+                prune.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * {@link #apply} for many transactions at once: they are folded into one delta per
+     * (month, category, type) and per (day, type), which are written as batches.
+     */
+    static void applyAll(Connection conn, int userId, List<TransactionRecord> transactions, int sign) throws SQLException {
+        Map<List<String>, double[]> deltas = new HashMap<>();
+        Map<List<Object>, double[]> dailyDeltas = new HashMap<>();
+        for (TransactionRecord transaction : transactions) {
+            double[] delta = deltas.computeIfAbsent(List.of(yearMonth(transaction.getDate()),
+                    transaction.getCategory(), transaction.getType()), key -> new double[2]);
+            delta[0] += sign * transaction.getAmount();
+            delta[1] += sign;
+
+            double[] dailyDelta = dailyDeltas.computeIfAbsent(
+                    List.of(transaction.getDate(), transaction.getType()), key -> new double[2]);
+            dailyDelta[0] += sign * transaction.getAmount();
+            dailyDelta[1] += sign;
+        }
+
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<List<String>, double[]> delta : deltas.entrySet()) {
+                List<String> key = delta.getKey();
+                bindUpsert(upsert, userId, key.get(0), key.get(1), key.get(2), delta.getValue()[0], (int) delta.getValue()[1]);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+        try (PreparedStatement upsert = conn.prepareStatement(DAILY_UPSERT_SQL)) {
+            for (Map.Entry<List<Object>, double[]> delta : dailyDeltas.entrySet()) {
+                List<Object> key = delta.getKey();
+                bindDailyUpsert(upsert, userId, (LocalDate) key.get(0), (String) key.get(1),
+                        delta.getValue()[0], (int) delta.getValue()[1]);
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+
+        if (sign < 0) {
+            try (PreparedStatement prune = conn.prepareStatement(PRUNE_SQL)) {
+                for (List<String> key : deltas.keySet()) {
+                    prune.setInt(1, userId);
+                    prune.setString(2, key.get(0));
+                    prune.setString(3, key.get(1));
+                    prune.setString(4, key.get(2));
+                    prune.addBatch();
+                }
+                prune.executeBatch();
+            }
+            try (PreparedStatement prune = conn.prepareStatement(DAILY_PRUNE_SQL)) {
+                for (List<Object> key : dailyDeltas.keySet()) {
+                    prune.setInt(1, userId);
+                    prune.setDate(2, Date.valueOf((LocalDate) key.get(0)));
+                    prune.setString(3, (String) key.get(1));
+                    prune.addBatch();
+                }
+                prune.executeBatch();
+            }
+        }
+    }
+
+    /** Prepares a statement for {@link #bindUpsert} batches, e.g. one per imported chunk. */
+    static PreparedStatement prepareUpsert(Connection conn) throws SQLException {
+        return conn.prepareStatement(UPSERT_SQL);
+    }
+
+    static void bindUpsert(PreparedStatement upsert, int userId, String yearMonth, String category, String type,
+                           double amount, int count) throws SQLException {
+        upsert.setInt(1, userId);
+        upsert.setString(2, yearMonth);
+        upsert.setString(3, category);
+        upsert.setString(4, type);
+        upsert.setDouble(5, amount);
+        upsert.setInt(6, count);
+    }
+
+    /** Prepares a statement for {@link #bindDailyUpsert} batches. */
+    static PreparedStatement prepareDailyUpsert(Connection conn) throws SQLException {
+        return conn.prepareStatement(DAILY_UPSERT_SQL);
+    }
+
+    static void bindDailyUpsert(PreparedStatement upsert, int userId, LocalDate day, String type,
+                                double amount, int count) throws SQLException {
+        upsert.setInt(1, userId);
+        upsert.setDate(2, Date.valueOf(day));
+        upsert.setString(3, type);
+        upsert.setDouble(4, amount);
+        upsert.setInt(5, count);
+    }
+
+    /**
+     * Recomputes the rollups from the transactions table in one database transaction.
+     * @param userId The user to rebuild, or null for everyone.
+     */
+    public static void rebuild(Integer userId) throws SQLException {
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.ROLLUP_REBUILD);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+            String userFilter = userId == null ? "" : "WHERE user_id = ? ";
+            try (PreparedStatement clear = conn.prepareStatement(CLEAR_SQL + (userId == null ? "" : " WHERE user_id = ?"));
+                 PreparedStatement fill = conn.prepareStatement(REBUILD_SQL + userFilter + REBUILD_GROUP_BY);
+                 PreparedStatement dailyClear = conn.prepareStatement(DAILY_CLEAR_SQL + (userId == null ? "" : " WHERE user_id = ?"));
+                 PreparedStatement dailyFill = conn.prepareStatement(DAILY_REBUILD_SQL + userFilter + DAILY_REBUILD_GROUP_BY)) {
+                if (userId != null) {
+                    clear.setInt(1, userId);
+                    fill.setInt(1, userId);
+                    dailyClear.setInt(1, userId);
+                    dailyFill.setInt(1, userId);
+                }
+                clear.executeUpdate();
+                dailyClear.executeUpdate();
+                timer.rows(fill.executeUpdate() + dailyFill.executeUpdate());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        // The alert engine's month spend is read from the rollup too
+        if (userId == null) {
+            LedgerCache.getInstance().invalidateAll();
+            BudgetAlertEngine.getInstance().reloadAll();
+        } else {
+            LedgerCache.getInstance().invalidate(userId);
+            BudgetAlertEngine.getInstance().reload(userId);
+        }
+        DataVersion.bump();
+    }
+
+    /** Rebuild command: {@code MonthlyRollup [userId]}. */
+    public static void main(String[] args) throws SQLException {
+        Integer userId = args.length > 0 ? Integer.valueOf(args[0]) : null;
+        long start = System.currentTimeMillis();
+        rebuild(userId);
+        System.out.println("Rebuilt monthly_category_totals and daily_totals for " + (userId == null ? "all users" : "user " + userId)
+                + " in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
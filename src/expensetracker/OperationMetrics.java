@@ -0,0 +1,64 @@
+package expensetracker;
+
+/**
+ * Latency (in microseconds) and row-count histograms for one logical operation,
+ * e.g. "auth" or "report-load". Fed by {@link QueryTimer}.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String operation;
+    private final LatencyHistogram latencyMicros = new LatencyHistogram();
+    private final LatencyHistogram rows = new LatencyHistogram();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void recordLatency(long nanos) {
+        latencyMicros.record(nanos / 1_000);
+    }
+
+    void recordRows(long rowCount) {
+        rows.record(rowCount);
+    }
+
+    @Override
+    public String getOperation() { return operation; }
+
+    @Override
+    public long getCount() { return latencyMicros.getCount(); }
+
+    @Override
+    public double getMeanMillis() { return latencyMicros.getMean() / 1_000.0; }
+
+    @Override
+    public double getP50Millis() { return latencyMicros.getPercentile(50) / 1_000.0; }
+
+    @Override
+    public double getP95Millis() { return latencyMicros.getPercentile(95) / 1_000.0; }
+
+    @Override
+    public double getP99Millis() { return latencyMicros.getPercentile(99) / 1_000.0; }
+
+    @Override
+    public double getMaxMillis() { return latencyMicros.getMax() / 1_000.0; }
+
+    @Override
+    public long getTotalRows() { return rows.getSum(); }
+
+    @Override
+    public double getMeanRows() { return rows.getMean(); }
+
+    @Override
+    public long getMaxRows() { return rows.getMax(); }
+
+    @Override
+    public String toString() {
+        String line = String.format("%-18s n=%,d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                operation, getCount(), getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+        if (rows.getCount() > 0) {
+            line += String.format(" rows(mean=%.1f max=%,d total=%,d)", getMeanRows(), getMaxRows(), getTotalRows());
+        }
+        return line;
+    }
+}
@@ -0,0 +1,30 @@
+package expensetracker;
+
+/**
+ * JMX view of one logical database operation, registered by {@link QueryMetrics} as
+ * {@code expensetracker:type=QueryMetrics,operation=<name>}. Times are in milliseconds
+ * and cover everything since the app started.
+ */
+public interface OperationMetricsMXBean {
+
+    String getOperation();
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    /** Rows read or written, summed over all calls. */
+    long getTotalRows();
+
+    double getMeanRows();
+
+    long getMaxRows();
+}
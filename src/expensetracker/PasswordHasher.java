@@ -0,0 +1,196 @@
+package expensetracker;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Salted, deliberately slow password hashing (PBKDF2 with HMAC-SHA256).
+ * Stored values look like {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, so every
+ * hash carries its own cost and old hashes keep verifying after the cost changes.
+ *
+ * The cost is {@code -Dbudgetbuddy.password.iterations} if set; otherwise it is
+ * calibrated once per run so one hash takes about {@code -Dbudgetbuddy.password.targetMs}
+ * (250 ms by default) on this machine.
+ *
+ * Hashing runs on a small fixed pool ({@code -Dbudgetbuddy.password.threads}, 2 by
+ * default) with a bounded queue, so a burst of logins cannot take every core, and a
+ * burst beyond the queue is rejected instead of piling up. Callers block, which is
+ * cheap on the virtual threads of {@link DbExecutor}; never call this on the EDT.
+ */
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    // Never go below this, however slow the machine is
+    private static final int MIN_ITERATIONS = 100_000;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+
+    private static final Integer CONFIGURED_ITERATIONS = Integer.getInteger("budgetbuddy.password.iterations");
+    private static final long TARGET_MS = Long.getLong("budgetbuddy.password.targetMs", 250);
+    private static final int THREADS = Integer.getInteger("budgetbuddy.password.threads", 2);
+    private static final int QUEUE_SIZE = Integer.getInteger("budgetbuddy.password.queueSize", 32);
+
+    private static final PasswordHasher INSTANCE = new PasswordHasher();
+
+    private final SecureRandom random = new SecureRandom();
+    private final ExecutorService executor;
+    private volatile int iterations = 0;
+    // Hash of a random password, checked against when there is no stored hash to check
+    private volatile String dummyHash;
+
+    private PasswordHasher() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                r -> {
+                    Thread t = new Thread(r, "BudgetBuddy-hash-" + threadNumber.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, pool) -> {
+                    throw new RejectedExecutionException("Too many sign-ins at once. Please try again in a moment.");
+                });
+    }
+
+    public static PasswordHasher getInstance() {
+        return INSTANCE;
+    }
+
+    /** Hashes a password with a fresh salt at the current cost. */
+    public String hash(String password) {
+        return run(() -> encode(password, newSalt(), currentIterations()));
+    }
+
+    /**
+     * Checks a password against a stored value. Values stored before hashing was
+     * introduced are plaintext; they still verify, and {@link #needsRehash} reports them.
+     */
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX + "$")) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> {
+            String[] parts = stored.split("\\$");
+            if (parts.length != 4) {
+                return false;
+            }
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(derive(password, salt, Integer.parseInt(parts[1])), expected);
+        });
+    }
+
+    /**
+     * Spends the same work as {@link #verify} on a hash at the current cost. Used when
+     * the user does not exist, so the response time does not tell an unknown username
+     * from a wrong password.
+     */
+    public void verifyUnknownUser(String password) {
+        String dummy = dummyHash;
+        if (dummy == null) {
+            dummy = hash(Base64.getEncoder().encodeToString(newSalt()));
+            dummyHash = dummy;
+        }
+        verify(password, dummy);
+    }
+
+    /**
+     * True if the stored value should be replaced after a successful login: it is
+     * plaintext, or its cost no longer matches the configured one. A calibrated cost
+     * varies a little from run to run, so it only triggers a rehash when it is off by
+     * more than 25%.
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        int storedIterations;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+        } catch (RuntimeException e) {
+            return true;
+        }
+        int current = run(this::currentIterations);
+        if (CONFIGURED_ITERATIONS != null) {
+            return storedIterations != current;
+        }
+        return storedIterations < current * 0.8 || storedIterations > current * 1.25;
+    }
+
+    /** Runs CPU-heavy work on the bounded hashing pool and waits for it. */
+    private <T> T run(Callable<T> work) {
+        return await(executor.submit(work));
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // Only ever called on a hashing thread
+    private int currentIterations() throws GeneralSecurityException {
+        if (iterations == 0) {
+            iterations = CONFIGURED_ITERATIONS != null ? CONFIGURED_ITERATIONS : calibrate();
+        }
+        return iterations;
+    }
+
+    private int calibrate() throws GeneralSecurityException {
+        byte[] salt = newSalt();
+        derive("calibration", salt, CALIBRATION_ITERATIONS); // warm up the JIT
+        long start = System.nanoTime();
+        derive("calibration", salt, CALIBRATION_ITERATIONS);
+        double millisPerIteration = (System.nanoTime() - start) / 1_000_000.0 / CALIBRATION_ITERATIONS;
+
+        return Math.max(MIN_ITERATIONS, (int) Math.min(Integer.MAX_VALUE, TARGET_MS / millisPerIteration));
+    }
+
+    private byte[] newSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return salt;
+    }
+
+    private static String encode(String password, byte[] salt, int iterations) throws GeneralSecurityException {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package expensetracker;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A saved transaction that is in the {@link TransactionJournal} but may not be in the
+ * database yet. The entry id is generated on the client and stored with the row, so a
+ * replayed entry is recognised instead of inserted twice.
+ */
+public class PendingTransaction {
+
+    private final String entryId;
+    private final int userId;
+    private final String type;
+    private final double amount;
+    private final String category;
+    private final String description;
+    private final LocalDate date;
+
+    // Completed by the flusher once the row is committed
+    private final CompletableFuture<TransactionRecord> stored = new CompletableFuture<>();
+    private volatile boolean rejected = false;
+
+    public PendingTransaction(int userId, String type, double amount, String category,
+                              String description, LocalDate date) {
+        this(UUID.randomUUID().toString(), userId, type, amount, category, description, date);
+    }
+
+    PendingTransaction(String entryId, int userId, String type, double amount, String category,
+                       String description, LocalDate date) {
+        this.entryId = entryId;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.category = category;
+        this.description = description;
+        this.date = date;
+    }
+
+    public String getEntryId() { return entryId; }
+
+    public int getUserId() { return userId; }
+
+    public String getType() { return type; }
+
+    public double getAmount() { return amount; }
+
+    public String getCategory() { return category; }
+
+    public String getDescription() { return description; }
+
+    public LocalDate getDate() { return date; }
+
+    /**
+     * Completes with the stored row once it is in the database, or with null if the
+     * database already had it or refused it.
+     */
+    public CompletableFuture<TransactionRecord> whenStored() {
+        return stored;
+    }
+
+    /**
+     * True once the database has refused the entry and the journal has moved it to
+     * {@link TransactionJournal#getRejectedPath()}; {@link #whenStored()} then completes with null.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    void markStored(TransactionRecord record) {
+        stored.complete(record);
+    }
+
+    void markRejected() {
+        rejected = true;
+        stored.complete(null);
+    }
+}
@@ -0,0 +1,84 @@
+package expensetracker;
+
+/**
+ * Immutable snapshot of {@link ConnectionPool} counters.
+ */
+public class PoolStats {
+
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final int waiting;
+    private final long acquireCount;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+    private final long timeoutCount;
+    private final long createdCount;
+    private final long evictedCount;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int active, int idle, int total, int maxSize, int waiting,
+                     long acquireCount, double averageWaitMillis, double maxWaitMillis,
+                     long timeoutCount, long createdCount, long evictedCount,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.waiting = waiting;
+        this.acquireCount = acquireCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.timeoutCount = timeoutCount;
+        this.createdCount = createdCount;
+        this.evictedCount = evictedCount;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /** Connections currently borrowed. */
+    public int getActive() { return active; }
+
+    /** Open connections waiting in the pool. */
+    public int getIdle() { return idle; }
+
+    /** All open physical connections. */
+    public int getTotal() { return total; }
+
+    public int getMaxSize() { return maxSize; }
+
+    /** Threads blocked waiting for a connection. */
+    public int getWaiting() { return waiting; }
+
+    public long getAcquireCount() { return acquireCount; }
+
+    public double getAverageWaitMillis() { return averageWaitMillis; }
+
+    public double getMaxWaitMillis() { return maxWaitMillis; }
+
+    public long getTimeoutCount() { return timeoutCount; }
+
+    public long getCreatedCount() { return createdCount; }
+
+    public long getEvictedCount() { return evictedCount; }
+
+    /** prepareStatement calls answered with an already prepared statement. */
+    public long getStatementCacheHits() { return statementCacheHits; }
+
+    /** prepareStatement calls that had to prepare a new statement. */
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+
+    public double getStatementCacheHitRatio() {
+        long prepares = statementCacheHits + statementCacheMisses;
+        return prepares == 0 ? 0.0 : (double) statementCacheHits / prepares;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d, idle=%d, total=%d/%d, waiting=%d, acquires=%d, avgWait=%.2fms, maxWait=%.2fms, timeouts=%d, created=%d, evicted=%d, stmtCacheHitRatio=%.1f%%",
+                active, idle, total, maxSize, waiting, acquireCount, averageWaitMillis, maxWaitMillis,
+                timeoutCount, createdCount, evictedCount, 100 * getStatementCacheHitRatio());
+    }
+}
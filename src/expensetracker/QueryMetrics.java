@@ -0,0 +1,156 @@
+package expensetracker;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Registry of per-operation latency and row-count histograms for every database call.
+ * Each operation is published over JMX as
+ * {@code expensetracker:type=QueryMetrics,operation=<name>} (see {@link OperationMetricsMXBean}),
+ * so jconsole or VisualVM can show the slow screens of a running app.
+ *
+ * Every {@code -Dbudgetbuddy.metrics.dumpIntervalS} seconds (300 by default, 0 turns it
+ * off) the operations that ran are also logged at INFO, or appended to
+ * {@code -Dbudgetbuddy.metrics.file} if set, together with the pool counters.
+ */
+public final class QueryMetrics {
+
+    // Logical operations, named after what the screen is doing rather than the SQL
+    public static final String AUTH = "auth";
+    public static final String DASHBOARD_SUM = "dashboard-sum";
+    public static final String TRENDS = "trends";
+    public static final String REPORT_COUNT = "report-count";
+    public static final String REPORT_LOAD = "report-load";
+    public static final String BUDGET_STATUS = "budget-status";
+    public static final String BUDGET_SAVE = "budget-save";
+    public static final String INSERT = "insert";
+    public static final String DELETE = "delete";
+    public static final String USER_CREATE = "user-create";
+    public static final String PASSWORD_UPDATE = "password-update";
+    public static final String LEDGER_LOAD = "ledger-load";
+    public static final String SEARCH = "search";
+    public static final String SEARCH_INDEX_LOAD = "search-index-load";
+    public static final String ROLLUP_REBUILD = "rollup-rebuild";
+    public static final String IMPORT = "import";
+    public static final String EXPORT = "export";
+    public static final String RECURRING_LOAD = "recurring-load";
+    public static final String RECURRING_SAVE = "recurring-save";
+    public static final String RECURRING_RUN = "recurring-run";
+    public static final String REPLICA_SYNC = "replica-sync";
+    public static final String CONNECTION_ACQUIRE = "connection-acquire";
+
+    private static final Logger LOG = Logger.getLogger(QueryMetrics.class.getName());
+
+    private static final long DUMP_INTERVAL_S = Long.getLong("budgetbuddy.metrics.dumpIntervalS", 300);
+    private static final String DUMP_FILE = System.getProperty("budgetbuddy.metrics.file");
+
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    // Calls seen by the previous dump, so an idle app does not repeat the same lines
+    private static long countAtLastDump = 0;
+
+    static {
+        if (DUMP_INTERVAL_S > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "BudgetBuddy-metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            dumper.scheduleAtFixedRate(QueryMetrics::dumpIfChanged, DUMP_INTERVAL_S, DUMP_INTERVAL_S, TimeUnit.SECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(QueryMetrics::dumpIfChanged, "BudgetBuddy-metrics-final-dump"));
+        }
+    }
+
+    private QueryMetrics() {
+    }
+
+    /** Starts timing one call of the operation; close the timer when the call is done. */
+    public static QueryTimer start(String operation) {
+        return new QueryTimer(get(operation));
+    }
+
+    /** Records how long a thread waited for a pooled connection. */
+    static void recordConnectionAcquire(long nanos) {
+        get(CONNECTION_ACQUIRE).recordLatency(nanos);
+    }
+
+    /** Every operation that has run at least once, by name. */
+    public static List<OperationMetrics> getOperations() {
+        List<OperationMetrics> operations = new ArrayList<>(OPERATIONS.values());
+        operations.sort(Comparator.comparing(OperationMetrics::getOperation));
+        return operations;
+    }
+
+    /** The current figures, one operation per line, followed by the pool counters. */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Query metrics at " + LocalDateTime.now().withNano(0) + ":\n");
+        for (OperationMetrics operation : getOperations()) {
+            report.append("  ").append(operation).append('\n');
+        }
+        report.append("  ").append(DatabaseManager.getPoolStats()).append('\n');
+        return report.toString();
+    }
+
+    private static OperationMetrics get(String operation) {
+        OperationMetrics metrics = OPERATIONS.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        return OPERATIONS.computeIfAbsent(operation, name -> {
+            OperationMetrics created = new OperationMetrics(name);
+            register(created);
+            return created;
+        });
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(metrics, new ObjectName("expensetracker:type=QueryMetrics,operation=" + metrics.getOperation()));
+        } catch (JMException | RuntimeException e) {
+            // Metrics still work without JMX, e.g. in a second class loader that already registered the name
+            LOG.warning("Could not publish query metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    private static synchronized void dumpIfChanged() {
+        long count = 0;
+        for (OperationMetrics operation : OPERATIONS.values()) {
+            count += operation.getCount();
+        }
+        if (count == countAtLastDump) {
+            return;
+        }
+        countAtLastDump = count;
+
+        String report = report();
+        if (DUMP_FILE == null) {
+            LOG.info(report.stripTrailing());
+            return;
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(DUMP_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            out.print(report);
+        } catch (IOException e) {
+            LOG.warning("Could not write query metrics to " + DUMP_FILE + ": " + e.getMessage());
+        }
+    }
+}
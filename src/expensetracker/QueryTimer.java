@@ -0,0 +1,31 @@
+package expensetracker;
+
+/**
+ * Times one call of an operation from creation to {@link #close()}. Meant to be the
+ * first resource of a try-with-resources block, so the time includes borrowing and
+ * returning the connection, i.e. what the calling screen actually waits for:
+ * {@code try (QueryTimer timer = QueryMetrics.start("report-load"); Connection conn = ...)}.
+ */
+public class QueryTimer implements AutoCloseable {
+
+    private final OperationMetrics metrics;
+    private final long startNanos = System.nanoTime();
+    private long rows = -1;
+
+    QueryTimer(OperationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Sets the number of rows the call read or wrote; calls that never set it record no row count. */
+    public void rows(long rowCount) {
+        this.rows = rowCount;
+    }
+
+    @Override
+    public void close() {
+        metrics.recordLatency(System.nanoTime() - startNanos);
+        if (rows >= 0) {
+            metrics.recordRows(rows);
+        }
+    }
+}
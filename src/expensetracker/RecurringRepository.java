@@ -0,0 +1,28 @@
+package expensetracker;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Storage for the templates of a user's recurring transactions.
+ */
+public interface RecurringRepository {
+
+    /**
+     * Stores a new template whose first occurrence is {@code startDate}. The occurrences
+     * that are already due are written by the next {@link RecurringScheduler} run.
+     */
+    RecurringTransaction createRecurring(int userId, String type, double amount, String category, String description,
+                                         RecurringTransaction.Frequency frequency, int intervalDays,
+                                         LocalDate startDate) throws SQLException;
+
+    /** The user's templates, oldest first. */
+    List<RecurringTransaction> loadRecurring(int userId) throws SQLException;
+
+    /**
+     * Stops a template. The transactions it already wrote are kept.
+     * @return true if a template was removed.
+     */
+    boolean deleteRecurring(int userId, int recurringId) throws SQLException;
+}
@@ -0,0 +1,210 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Writes the transactions of {@link RecurringTransaction} templates as they fall due:
+ * once at startup and then every {@code -Dbudgetbuddy.recurring.intervalS} seconds
+ * (3600 by default, 0 turns the schedule off).
+ *
+ * A run writes every occurrence that fell due since the last one, for every template
+ * and user, in a single database transaction: one batched INSERT, one rollup batch and
+ * one batch advancing each template's next date. A user back after six months gets all
+ * the missed rent and salary entries at once. Each occurrence has a fixed entry id (see
+ * {@link RecurringTransaction#entryIdFor}), so one that is already stored is skipped
+ * rather than written twice.
+ */
+public final class RecurringScheduler {
+
+    private static final Logger LOG = Logger.getLogger(RecurringScheduler.class.getName());
+
+    private static final long RUN_INTERVAL_S = Long.getLong("budgetbuddy.recurring.intervalS", 3600);
+    // Entry ids per IN list when checking which occurrences are already stored
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String DUE_SQL = JdbcRecurringRepository.SELECT_COLUMNS + "WHERE next_date <= ? FOR UPDATE";
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ADVANCE_SQL = "UPDATE recurring_transactions SET next_date = ? WHERE recurring_id = ?";
+
+    private static final RecurringScheduler INSTANCE = new RecurringScheduler();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "BudgetBuddy-recurring");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** One transaction to write for a template. */
+    private static final class Occurrence {
+        final int userId;
+        final String entryId;
+        final TransactionRecord record;
+
+        Occurrence(RecurringTransaction template, LocalDate date) {
+            this.userId = template.getUserId();
+            this.entryId = template.entryIdFor(date);
+            this.record = new TransactionRecord(0, template.getType(), template.getCategory(), template.getAmount(),
+                    date, template.getDescription());
+        }
+    }
+
+    private RecurringScheduler() {
+    }
+
+    public static RecurringScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts the background schedule; the first run is right away. */
+    public void start() {
+        if (RUN_INTERVAL_S > 0 && started.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::runQuietly, 0, RUN_INTERVAL_S, TimeUnit.SECONDS);
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            int written = materializeDue(LocalDate.now());
+            if (written > 0) {
+                LOG.info("Recurring transactions: wrote " + written + " due entries");
+            }
+        } catch (SQLException e) {
+            // The templates were not advanced, so the next run writes the same entries
+            LOG.warning("Recurring transactions not written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every occurrence up to and including {@code today} that is not written yet.
+     * The templates are locked while their entries are written, so runs in other
+     * processes wait instead of writing the same occurrences.
+     * @return The number of transactions written.
+     */
+    public synchronized int materializeDue(LocalDate today) throws SQLException {
+        List<Occurrence> occurrences = new ArrayList<>();
+        Map<Integer, LocalDate> nextDates = new LinkedHashMap<>();
+        Set<Integer> usersWritten = new HashSet<>();
+        int written;
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.RECURRING_RUN);
+             Connection conn = DatabaseManager.openConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement due = conn.prepareStatement(DUE_SQL)) {
+                    due.setDate(1, Date.valueOf(today));
+                    try (ResultSet rs = due.executeQuery()) {
+                        while (rs.next()) {
+                            RecurringTransaction template = JdbcRecurringRepository.readRecurring(rs);
+                            LocalDate date = template.getNextDate();
+                            while (!date.isAfter(today)) {
+                                occurrences.add(new Occurrence(template, date));
+                                date = template.occurrenceAfter(date);
+                            }
+                            nextDates.put(template.getRecurringId(), date);
+                        }
+                    }
+                }
+                if (nextDates.isEmpty()) {
+                    conn.rollback();
+                    timer.rows(0);
+                    return 0;
+                }
+
+                Set<String> stored = storedEntryIds(conn, occurrences);
+                Map<Integer, List<TransactionRecord>> recordsByUser = new LinkedHashMap<>();
+                Map<Integer, List<String>> entryIdsByUser = new LinkedHashMap<>();
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+                    for (Occurrence occurrence : occurrences) {
+                        if (stored.contains(occurrence.entryId)) {
+                            continue;
+                        }
+                        TransactionRecord record = occurrence.record;
+                        insert.setInt(1, occurrence.userId);
+                        insert.setString(2, record.getType());
+                        insert.setDouble(3, record.getAmount());
+                        insert.setString(4, record.getCategory());
+                        insert.setString(5, record.getDescription());
+                        insert.setDate(6, Date.valueOf(record.getDate()));
+                        insert.setString(7, occurrence.entryId);
+                        insert.addBatch();
+
+                        recordsByUser.computeIfAbsent(occurrence.userId, key -> new ArrayList<>()).add(record);
+                        entryIdsByUser.computeIfAbsent(occurrence.userId, key -> new ArrayList<>()).add(occurrence.entryId);
+                    }
+                    insert.executeBatch();
+                }
+
+                for (Map.Entry<Integer, List<TransactionRecord>> user : recordsByUser.entrySet()) {
+                    MonthlyRollup.applyAll(conn, user.getKey(), user.getValue(), 1);
+                    ReplicaOutbox.recordInserts(conn, user.getKey(), entryIdsByUser.get(user.getKey()));
+                }
+
+                try (PreparedStatement advance = conn.prepareStatement(ADVANCE_SQL)) {
+                    for (Map.Entry<Integer, LocalDate> next : nextDates.entrySet()) {
+                        advance.setDate(1, Date.valueOf(next.getValue()));
+                        advance.setInt(2, next.getKey());
+                        advance.addBatch();
+                    }
+                    advance.executeBatch();
+                }
+
+                conn.commit();
+                usersWritten.addAll(recordsByUser.keySet());
+                written = occurrences.size() - stored.size();
+                timer.rows(written);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        // Totals changed in bulk; re-reading once is cheaper than replaying every row
+        for (int userId : usersWritten) {
+            TransactionWrites.bulkChanged(userId);
+        }
+        if (!usersWritten.isEmpty()) {
+            DataVersion.bump();
+            ReplicaSync.requestSync();
+        }
+        return written;
+    }
+
+    /** The entry ids among the occurrences that a previous run (or another replica) already stored. */
+    private static Set<String> storedEntryIds(Connection conn, List<Occurrence> occurrences) throws SQLException {
+        Set<String> stored = new HashSet<>();
+        for (int start = 0; start < occurrences.size(); start += CHUNK_SIZE) {
+            List<Occurrence> chunk = occurrences.subList(start, Math.min(start + CHUNK_SIZE, occurrences.size()));
+            String sql = "SELECT entry_id FROM transactions WHERE entry_id IN (" + "?, ".repeat(chunk.size() - 1) + "?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i).entryId);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        stored.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,111 @@
+package expensetracker;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A template for a transaction that repeats, such as rent or a salary. The
+ * {@link RecurringScheduler} writes one transaction per occurrence, from the start date
+ * on, as each occurrence falls due.
+ */
+public class RecurringTransaction {
+
+    /** How often a template repeats. */
+    public enum Frequency {
+        DAILY("Daily"),
+        WEEKLY("Weekly"),
+        MONTHLY("Monthly"),
+        CUSTOM("Every N days");
+
+        private final String label;
+
+        Frequency(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private final int recurringId;
+    private final int userId;
+    private final String type;
+    private final double amount;
+    private final String category;
+    private final String description;
+    private final Frequency frequency;
+    private final int intervalDays;
+    private final LocalDate startDate;
+    private final LocalDate nextDate;
+
+    /**
+     * @param intervalDays The days between occurrences for {@link Frequency#CUSTOM}, ignored otherwise.
+     * @param nextDate The first occurrence not yet written.
+     */
+    public RecurringTransaction(int recurringId, int userId, String type, double amount, String category,
+                                String description, Frequency frequency, int intervalDays,
+                                LocalDate startDate, LocalDate nextDate) {
+        this.recurringId = recurringId;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.category = category;
+        this.description = description;
+        this.frequency = frequency;
+        this.intervalDays = intervalDays;
+        this.startDate = startDate;
+        this.nextDate = nextDate;
+    }
+
+    public int getRecurringId() { return recurringId; }
+
+    public int getUserId() { return userId; }
+
+    public String getType() { return type; }
+
+    public double getAmount() { return amount; }
+
+    public String getCategory() { return category; }
+
+    public String getDescription() { return description; }
+
+    public Frequency getFrequency() { return frequency; }
+
+    public int getIntervalDays() { return intervalDays; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getNextDate() { return nextDate; }
+
+    /** "Monthly", or "Every 14 days" for a custom interval. */
+    public String describeFrequency() {
+        return frequency == Frequency.CUSTOM ? "Every " + intervalDays + " days" : frequency.getLabel();
+    }
+
+    /**
+     * The occurrence after {@code date}. Monthly occurrences keep the start date's day of
+     * the month, falling back to the last day in shorter months (Jan 31, Feb 28, Mar 31).
+     */
+    public LocalDate occurrenceAfter(LocalDate date) {
+        switch (frequency) {
+            case DAILY: return date.plusDays(1);
+            case WEEKLY: return date.plusWeeks(1);
+            case MONTHLY:
+                long months = ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(date));
+                return startDate.plusMonths(months + 1);
+            default: return date.plusDays(intervalDays);
+        }
+    }
+
+    /**
+     * The entry id of the transaction written for one occurrence. It is derived from the
+     * template and the date, so an occurrence that is already stored is recognised
+     * instead of inserted twice.
+     */
+    public String entryIdFor(LocalDate occurrence) {
+        String name = "recurring:" + recurringId + ":" + occurrence;
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
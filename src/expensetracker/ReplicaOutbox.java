@@ -0,0 +1,98 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Records local changes that {@link ReplicaSync} still has to push to the central
+ * database. Writers call it inside their own database transaction, so a change and its
+ * outbox row are committed together. Does nothing unless the app runs on the replica.
+ */
+final class ReplicaOutbox {
+
+    static final String INSERT = "insert";
+    static final String DELETE = "delete";
+    static final String BUDGET = "budget";
+
+    private static final String RECORD_SQL =
+            "INSERT INTO replica_outbox (user_id, kind, entry_key, base_version) VALUES (?, ?, ?, ?)";
+
+    private ReplicaOutbox() {
+    }
+
+    static boolean isActive() {
+        return DatabaseManager.getBackend() == StorageBackend.REPLICA;
+    }
+
+    /** Queues a pushed insert or delete of the transaction with this entry id. */
+    static void recordTransaction(Connection conn, int userId, String kind, String entryId) throws SQLException {
+        if (!isActive() || entryId == null) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_SQL)) {
+            bind(pstmt, userId, kind, entryId, 0);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /** Queues the inserts of a bulk import as one batch. */
+    static void recordInserts(Connection conn, int userId, List<String> entryIds) throws SQLException {
+        recordTransactions(conn, userId, INSERT, entryIds);
+    }
+
+    /** Queues the deletes of a multi-row delete as one batch. */
+    static void recordDeletes(Connection conn, int userId, List<String> entryIds) throws SQLException {
+        recordTransactions(conn, userId, DELETE, entryIds);
+    }
+
+    private static void recordTransactions(Connection conn, int userId, String kind, List<String> entryIds)
+            throws SQLException {
+        if (!isActive() || entryIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_SQL)) {
+            for (String entryId : entryIds) {
+                bind(pstmt, userId, kind, entryId, 0);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Queues a budget edit made on top of {@code baseVersion}, the central version the
+     * replica last saw. Further edits before the push share the first entry, which keeps
+     * the version they all started from.
+     */
+    static void recordBudget(Connection conn, int userId, String category, int baseVersion) throws SQLException {
+        if (!isActive()) {
+            return;
+        }
+        try (PreparedStatement pending = conn.prepareStatement(
+                "SELECT 1 FROM replica_outbox WHERE user_id = ? AND kind = ? AND entry_key = ?")) {
+            pending.setInt(1, userId);
+            pending.setString(2, BUDGET);
+            pending.setString(3, category);
+            try (ResultSet rs = pending.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_SQL)) {
+            bind(pstmt, userId, BUDGET, category, baseVersion);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, int userId, String kind, String key, int baseVersion)
+            throws SQLException {
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, kind);
+        pstmt.setString(3, key);
+        pstmt.setInt(4, baseVersion);
+    }
+}
@@ -0,0 +1,796 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the local replica ({@link StorageBackend#REPLICA}) in step with the central MySQL
+ * database. Every screen reads and writes the replica only; this class pushes the local
+ * changes queued by {@link ReplicaOutbox} and pulls everything changed centrally, in the
+ * background every {@code -Dbudgetbuddy.replica.syncIntervalS} seconds (15 by default) and
+ * shortly after each local write. While the central database is unreachable the app keeps
+ * working on the replica and the outbox simply grows.
+ *
+ * Transactions are matched across databases by entry id. They are never edited, so a
+ * pull only has to add rows it has not seen ({@code updated_at} is the change timestamp)
+ * and remove rows with a tombstone. Budgets are edited in place: a push succeeds only if
+ * the central version is still the one the edit started from. Otherwise the two edits
+ * conflict, and the one with the later edit time wins on both sides.
+ *
+ * The central database is {@code -Dbudgetbuddy.central.url} (user, password and driver
+ * likewise), defaulting to the MySQL settings of {@link StorageBackend#MYSQL}.
+ */
+public final class ReplicaSync {
+
+    private static final Logger LOG = Logger.getLogger(ReplicaSync.class.getName());
+
+    private static final boolean ENABLED = DatabaseManager.getBackend() == StorageBackend.REPLICA;
+
+    private static final String CENTRAL_URL = System.getProperty("budgetbuddy.central.url",
+            StorageBackend.MYSQL.defaultUrl() + "&connectTimeout=3000");
+    private static final String CENTRAL_USER = System.getProperty("budgetbuddy.central.user", StorageBackend.MYSQL.getDefaultUser());
+    private static final String CENTRAL_PASS = System.getProperty("budgetbuddy.central.password", StorageBackend.MYSQL.getDefaultPassword());
+    private static final String CENTRAL_DRIVER = System.getProperty("budgetbuddy.central.driver", StorageBackend.MYSQL.getDriverClass());
+
+    private static final long SYNC_INTERVAL_S = Long.getLong("budgetbuddy.replica.syncIntervalS", 15);
+    // A local write is pushed this soon after it, so a burst of writes goes in one sync
+    private static final long WRITE_DELAY_MS = 500;
+    private static final int PAGE_SIZE = 1_000;
+    // Re-read this much before the pull cursor: a central transaction can commit rows
+    // stamped earlier than rows another transaction committed before it
+    private static final long PULL_OVERLAP_MS = 60_000;
+
+    private static final ReplicaSync INSTANCE = new ReplicaSync();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "BudgetBuddy-replica-sync");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean syncRequested = new AtomicBoolean();
+
+    private volatile ConnectionPool central;
+    private volatile boolean centralMigrated = false;
+    private volatile boolean online = true;
+    private volatile long lastSyncMillis = 0;
+
+    private ReplicaSync() {
+    }
+
+    public static ReplicaSync getInstance() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /** Starts the background schedule; the first sync runs right away. No-op unless on the replica. */
+    public void start() {
+        if (ENABLED && started.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::syncQuietly, 0, SYNC_INTERVAL_S, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Asks for a sync soon, e.g. after a local write. */
+    public static void requestSync() {
+        INSTANCE.requestSoon();
+    }
+
+    /** False after a sync failed to reach the central database, until one succeeds. */
+    public boolean isOnline() {
+        return online;
+    }
+
+    /** When the last complete sync finished, in epoch milliseconds, or 0 if none has yet. */
+    public long getLastSyncMillis() {
+        return lastSyncMillis;
+    }
+
+    /** A connection to the central database, for the operations that must happen there (sign-up, password changes). */
+    Connection openCentral() throws SQLException {
+        ConnectionPool current = central;
+        if (current == null) {
+            synchronized (this) {
+                current = central;
+                if (current == null) {
+                    try {
+                        Class.forName(CENTRAL_DRIVER);
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("JDBC driver " + CENTRAL_DRIVER + " not found. Please ensure the JAR is correctly added.", e);
+                    }
+                    current = new ConnectionPool(CENTRAL_URL, CENTRAL_USER, CENTRAL_PASS,
+                            0, 2, 5_000, 60_000, 1_000, 2, 16);
+                    central = current;
+                }
+            }
+        }
+        if (!centralMigrated) {
+            migrateCentral(current);
+        }
+        return current.borrow();
+    }
+
+    private synchronized void migrateCentral(ConnectionPool pool) throws SQLException {
+        if (centralMigrated) {
+            return;
+        }
+        try (Connection conn = pool.borrow()) {
+            new SchemaMigrator().migrate(conn);
+        }
+        centralMigrated = true;
+    }
+
+    /**
+     * Copies a user's account from the central database into the replica (same user_id),
+     * so the user can log in offline from then on.
+     * @return false if the central database has no such user.
+     */
+    public boolean importUser(String username) throws SQLException {
+        String selectSql = "SELECT user_id, username, password, email FROM users WHERE username = ?";
+        String upsertSql = "INSERT INTO users (user_id, username, password, email) VALUES (?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE username = VALUES(username), password = VALUES(password), email = VALUES(email)";
+
+        try (Connection remote = openCentral();
+             PreparedStatement select = remote.prepareStatement(selectSql)) {
+            select.setString(1, username);
+            try (ResultSet rs = select.executeQuery();
+                 Connection local = DatabaseManager.openConnection();
+                 PreparedStatement upsert = local.prepareStatement(upsertSql)) {
+                if (!rs.next()) {
+                    return false;
+                }
+                upsert.setInt(1, rs.getInt("user_id"));
+                upsert.setString(2, rs.getString("username"));
+                upsert.setString(3, rs.getString("password"));
+                upsert.setString(4, rs.getString("email"));
+                upsert.executeUpdate();
+            }
+        }
+        return true;
+    }
+
+    private void requestSoon() {
+        if (ENABLED && started.get() && syncRequested.compareAndSet(false, true)) {
+            scheduler.schedule(this::syncQuietly, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void syncQuietly() {
+        syncRequested.set(false);
+        try {
+            sync();
+            if (!online) {
+                LOG.info("Central database reachable again; replica is in sync.");
+            }
+            online = true;
+            lastSyncMillis = System.currentTimeMillis();
+        } catch (SQLException | RuntimeException e) {
+            // Logged once per outage, not on every retry
+            if (online) {
+                LOG.warning("Central database unreachable, working offline on the replica: " + e.getMessage());
+            }
+            online = false;
+        }
+    }
+
+    /** Pushes, then pulls, every user who has logged in on this machine. */
+    private void sync() throws SQLException {
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.REPLICA_SYNC)) {
+            long changes = 0;
+            for (Map.Entry<Integer, String> user : localUsers().entrySet()) {
+                changes += push(user.getKey());
+                importUser(user.getValue());
+                changes += pullTransactions(user.getKey());
+                changes += pullTombstones(user.getKey());
+                changes += pullBudgets(user.getKey());
+            }
+            timer.rows(changes);
+        }
+    }
+
+    private Map<Integer, String> localUsers() throws SQLException {
+        Map<Integer, String> users = new HashMap<>();
+        try (Connection local = DatabaseManager.openConnection();
+             PreparedStatement pstmt = local.prepareStatement("SELECT user_id, username FROM users");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                users.put(rs.getInt("user_id"), rs.getString("username"));
+            }
+        }
+        return users;
+    }
+
+    // --- Push ---
+
+    /** One queued local change. */
+    private static final class OutboxEntry {
+        final long seq;
+        final String kind;
+        final String key;
+        final int baseVersion;
+
+        OutboxEntry(long seq, String kind, String key, int baseVersion) {
+            this.seq = seq;
+            this.kind = kind;
+            this.key = key;
+            this.baseVersion = baseVersion;
+        }
+    }
+
+    /** The outcome of pushing one budget edit. */
+    private static final class PushedBudget {
+        final BudgetRow central;
+        // The edit time the push read; the local row still has it unless the user edited it again meanwhile
+        final long pushedUpdatedAt;
+
+        PushedBudget(BudgetRow central, long pushedUpdatedAt) {
+            this.central = central;
+            this.pushedUpdatedAt = pushedUpdatedAt;
+        }
+    }
+
+    /** A budget as one side stores it. */
+    private static final class BudgetRow {
+        final double limit;
+        final int version;
+        final long updatedAt;
+
+        BudgetRow(double limit, int version, long updatedAt) {
+            this.limit = limit;
+            this.version = version;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    /**
+     * Applies the user's outbox to the central database a page at a time: one central
+     * transaction per page, then the page is removed from the outbox. A crash in between
+     * replays the page, which is harmless: inserts and tombstones are matched by entry id,
+     * and a budget edit that already went in now looks like a tie, which keeps it.
+     */
+    private int push(int userId) throws SQLException {
+        int pushed = 0;
+        while (true) {
+            List<OutboxEntry> page = loadOutbox(userId);
+            if (page.isEmpty()) {
+                return pushed;
+            }
+
+            Map<String, PushedBudget> acceptedBudgets = new HashMap<>();
+            try (Connection local = DatabaseManager.openConnection();
+                 Connection remote = openCentral()) {
+                remote.setAutoCommit(false);
+                try {
+                    for (OutboxEntry entry : page) {
+                        switch (entry.kind) {
+                            case ReplicaOutbox.INSERT -> pushInsert(local, remote, userId, entry.key);
+                            case ReplicaOutbox.DELETE -> pushDelete(remote, userId, entry.key);
+                            case ReplicaOutbox.BUDGET -> {
+                                PushedBudget budget = pushBudget(local, remote, userId, entry.key, entry.baseVersion);
+                                if (budget != null) {
+                                    acceptedBudgets.put(entry.key, budget);
+                                }
+                            }
+                            default -> LOG.warning("Unknown replica outbox entry: " + entry.kind);
+                        }
+                    }
+                    remote.commit();
+                } catch (SQLException e) {
+                    remote.rollback();
+                    throw e;
+                }
+
+                finishPush(local, userId, page, acceptedBudgets);
+            }
+            pushed += page.size();
+        }
+    }
+
+    private List<OutboxEntry> loadOutbox(int userId) throws SQLException {
+        String sql = "SELECT seq, kind, entry_key, base_version FROM replica_outbox WHERE user_id = ? ORDER BY seq LIMIT ?";
+        List<OutboxEntry> page = new ArrayList<>();
+        try (Connection local = DatabaseManager.openConnection();
+             PreparedStatement pstmt = local.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, PAGE_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(new OutboxEntry(rs.getLong("seq"), rs.getString("kind"),
+                            rs.getString("entry_key"), rs.getInt("base_version")));
+                }
+            }
+        }
+        return page;
+    }
+
+    private void pushInsert(Connection local, Connection remote, int userId, String entryId) throws SQLException {
+        TransactionRecord row;
+        try (PreparedStatement select = local.prepareStatement(
+                "SELECT transaction_id, type, category, amount, transaction_date, description FROM transactions WHERE entry_id = ?")) {
+            select.setString(1, entryId);
+            try (ResultSet rs = select.executeQuery()) {
+                // Deleted locally before it was pushed; the delete entry that follows covers it
+                if (!rs.next()) {
+                    return;
+                }
+                row = readRecord(rs);
+            }
+        }
+
+        try (PreparedStatement insert = remote.prepareStatement(
+                "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setInt(1, userId);
+            insert.setString(2, row.getType());
+            insert.setDouble(3, row.getAmount());
+            insert.setString(4, row.getCategory());
+            insert.setString(5, row.getDescription());
+            insert.setDate(6, Date.valueOf(row.getDate()));
+            insert.setString(7, entryId);
+            insert.executeUpdate();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Already pushed before a crash
+            return;
+        }
+        MonthlyRollup.apply(remote, userId, row, 1);
+    }
+
+    private void pushDelete(Connection remote, int userId, String entryId) throws SQLException {
+        TransactionRecord row = null;
+        try (PreparedStatement select = remote.prepareStatement(
+                "SELECT transaction_id, type, category, amount, transaction_date, description FROM transactions " +
+                        "WHERE entry_id = ? AND user_id = ? FOR UPDATE")) {
+            select.setString(1, entryId);
+            select.setInt(2, userId);
+            try (ResultSet rs = select.executeQuery()) {
+                if (rs.next()) {
+                    row = readRecord(rs);
+                }
+            }
+        }
+
+        if (row != null) {
+            try (PreparedStatement delete = remote.prepareStatement("DELETE FROM transactions WHERE transaction_id = ?")) {
+                delete.setInt(1, row.getTransactionId());
+                delete.executeUpdate();
+            }
+            MonthlyRollup.apply(remote, userId, row, -1);
+        }
+
+        // Other replicas of this user learn about the delete from the tombstone
+        try (PreparedStatement tombstone = remote.prepareStatement(
+                "INSERT INTO sync_tombstones (entry_id, user_id) VALUES (?, ?)")) {
+            tombstone.setString(1, entryId);
+            tombstone.setInt(2, userId);
+            tombstone.executeUpdate();
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // Deleted centrally as well, or pushed before a crash
+        }
+    }
+
+    /**
+     * Pushes a budget edit that started from central version {@code baseVersion}.
+     * @return The budget as the central database now has it, or null if the replica no longer has the row.
+     */
+    private PushedBudget pushBudget(Connection local, Connection remote, int userId, String category, int baseVersion)
+            throws SQLException {
+        BudgetRow mine = loadBudget(local, userId, category, false);
+        if (mine == null) {
+            return null;
+        }
+
+        // The usual case: nobody else changed it since the replica last saw it
+        if (updateCentralBudget(remote, userId, category, mine, baseVersion)) {
+            return new PushedBudget(new BudgetRow(mine.limit, baseVersion + 1, mine.updatedAt), mine.updatedAt);
+        }
+
+        BudgetRow theirs = loadBudget(remote, userId, category, true);
+        if (theirs == null) {
+            try (PreparedStatement insert = remote.prepareStatement(
+                    "INSERT INTO budgets (category, monthly_limit, user_id, version, updated_at) VALUES (?, ?, ?, 1, ?)")) {
+                insert.setString(1, category);
+                insert.setDouble(2, mine.limit);
+                insert.setInt(3, userId);
+                insert.setLong(4, mine.updatedAt);
+                insert.executeUpdate();
+            }
+            return new PushedBudget(new BudgetRow(mine.limit, 1, mine.updatedAt), mine.updatedAt);
+        }
+
+        // Conflict: both sides edited the budget. The later edit wins; a tie is the same edit pushed twice.
+        if (mine.updatedAt > theirs.updatedAt && updateCentralBudget(remote, userId, category, mine, theirs.version)) {
+            LOG.info("Budget conflict on " + category + " for user " + userId + ": kept this machine's "
+                    + mine.limit + " over the central " + theirs.limit);
+            return new PushedBudget(new BudgetRow(mine.limit, theirs.version + 1, mine.updatedAt), mine.updatedAt);
+        }
+        if (mine.updatedAt != theirs.updatedAt) {
+            LOG.info("Budget conflict on " + category + " for user " + userId + ": kept the central "
+                    + theirs.limit + " over this machine's " + mine.limit);
+        }
+        return new PushedBudget(theirs, mine.updatedAt);
+    }
+
+    private static boolean updateCentralBudget(Connection remote, int userId, String category, BudgetRow row,
+                                               int expectedVersion) throws SQLException {
+        try (PreparedStatement update = remote.prepareStatement(
+                "UPDATE budgets SET monthly_limit = ?, updated_at = ?, version = version + 1 " +
+                        "WHERE user_id = ? AND category = ? AND version = ?")) {
+            update.setDouble(1, row.limit);
+            update.setLong(2, row.updatedAt);
+            update.setInt(3, userId);
+            update.setString(4, category);
+            update.setInt(5, expectedVersion);
+            return update.executeUpdate() == 1;
+        }
+    }
+
+    private static BudgetRow loadBudget(Connection conn, int userId, String category, boolean lock) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT monthly_limit, version, updated_at FROM budgets WHERE user_id = ? AND category = ?"
+                        + (lock ? " FOR UPDATE" : ""))) {
+            select.setInt(1, userId);
+            select.setString(2, category);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next()
+                        ? new BudgetRow(rs.getDouble("monthly_limit"), rs.getInt("version"), rs.getLong("updated_at"))
+                        : null;
+            }
+        }
+    }
+
+    /**
+     * Removes a pushed page from the outbox and records the central budget versions. A
+     * budget edited again while it was being pushed keeps its newer value and is queued
+     * once more, on top of the version just accepted.
+     */
+    private void finishPush(Connection local, int userId, List<OutboxEntry> page,
+                            Map<String, PushedBudget> acceptedBudgets) throws SQLException {
+        local.setAutoCommit(false);
+        try (PreparedStatement remove = local.prepareStatement("DELETE FROM replica_outbox WHERE seq = ?");
+             PreparedStatement adopt = local.prepareStatement(
+                     "UPDATE budgets SET monthly_limit = ?, version = ?, updated_at = ? " +
+                             "WHERE user_id = ? AND category = ? AND updated_at = ?")) {
+            for (OutboxEntry entry : page) {
+                remove.setLong(1, entry.seq);
+                remove.addBatch();
+            }
+            remove.executeBatch();
+
+            for (Map.Entry<String, PushedBudget> accepted : acceptedBudgets.entrySet()) {
+                BudgetRow central = accepted.getValue().central;
+                adopt.setDouble(1, central.limit);
+                adopt.setInt(2, central.version);
+                adopt.setLong(3, central.updatedAt);
+                adopt.setInt(4, userId);
+                adopt.setString(5, accepted.getKey());
+                adopt.setLong(6, accepted.getValue().pushedUpdatedAt);
+                if (adopt.executeUpdate() == 0) {
+                    ReplicaOutbox.recordBudget(local, userId, accepted.getKey(), central.version);
+                }
+            }
+            local.commit();
+        } catch (SQLException e) {
+            local.rollback();
+            throw e;
+        }
+    }
+
+    // --- Pull ---
+
+    /**
+     * Adds the user's central transactions the replica has not seen, a page at a time in
+     * (updated_at, transaction_id) order, skipping rows it already has or deleted locally.
+     */
+    private int pullTransactions(int userId) throws SQLException {
+        String selectSql = "SELECT transaction_id, type, category, amount, transaction_date, description, entry_id, updated_at " +
+                "FROM transactions WHERE user_id = ? AND entry_id IS NOT NULL " +
+                "AND (updated_at > ? OR (updated_at = ? AND transaction_id > ?)) " +
+                "ORDER BY updated_at, transaction_id LIMIT ?";
+
+        Timestamp cursorTime = pullCursor(userId, "transactions_pulled_at");
+        int cursorId = 0;
+        int pulled = 0;
+
+        while (true) {
+            List<TransactionRecord> rows = new ArrayList<>();
+            List<String> entryIds = new ArrayList<>();
+            Timestamp lastTime = null;
+            int lastId = 0;
+
+            try (Connection remote = openCentral();
+                 PreparedStatement select = remote.prepareStatement(selectSql)) {
+                select.setInt(1, userId);
+                select.setTimestamp(2, cursorTime);
+                select.setTimestamp(3, cursorTime);
+                select.setInt(4, cursorId);
+                select.setInt(5, PAGE_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(readRecord(rs));
+                        entryIds.add(rs.getString("entry_id"));
+                        lastTime = rs.getTimestamp("updated_at");
+                        lastId = rs.getInt("transaction_id");
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return pulled;
+            }
+
+            pulled += storePulled(userId, rows, entryIds, lastTime);
+            if (rows.size() < PAGE_SIZE) {
+                return pulled;
+            }
+            cursorTime = lastTime;
+            cursorId = lastId;
+        }
+    }
+
+    private int storePulled(int userId, List<TransactionRecord> rows, List<String> entryIds, Timestamp pulledUpTo)
+            throws SQLException {
+        List<TransactionRecord> added = new ArrayList<>();
+        try (Connection local = DatabaseManager.openConnection()) {
+            local.setAutoCommit(false);
+            try (PreparedStatement known = local.prepareStatement(
+                    "SELECT 1 FROM transactions WHERE entry_id = ? UNION ALL SELECT 1 FROM sync_tombstones WHERE entry_id = ?");
+                 PreparedStatement insert = local.prepareStatement(
+                         "INSERT INTO transactions (user_id, type, amount, category, description, transaction_date, entry_id) " +
+                                 "VALUES (?, ?, ?, ?, ?, ?, ?)", PreparedStatement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    TransactionRecord row = rows.get(i);
+                    String entryId = entryIds.get(i);
+
+                    known.setString(1, entryId);
+                    known.setString(2, entryId);
+                    try (ResultSet rs = known.executeQuery()) {
+                        if (rs.next()) {
+                            continue;
+                        }
+                    }
+
+                    insert.setInt(1, userId);
+                    insert.setString(2, row.getType());
+                    insert.setDouble(3, row.getAmount());
+                    insert.setString(4, row.getCategory());
+                    insert.setString(5, row.getDescription());
+                    insert.setDate(6, Date.valueOf(row.getDate()));
+                    insert.setString(7, entryId);
+                    insert.executeUpdate();
+
+                    TransactionRecord stored;
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        stored = new TransactionRecord(keys.next() ? keys.getInt(1) : -1, row.getType(),
+                                row.getCategory(), row.getAmount(), row.getDate(), row.getDescription());
+                    }
+                    MonthlyRollup.apply(local, userId, stored, 1);
+                    added.add(stored);
+                }
+                saveCursor(local, userId, "transactions_pulled_at", pulledUpTo);
+                local.commit();
+            } catch (SQLException e) {
+                local.rollback();
+                throw e;
+            }
+        }
+
+        for (TransactionRecord stored : added) {
+            TransactionWrites.inserted(userId, stored);
+        }
+        if (!added.isEmpty()) {
+            DataVersion.bump();
+        }
+        return added.size();
+    }
+
+    /** Deletes the local copies of transactions deleted centrally (or on another replica). */
+    private int pullTombstones(int userId) throws SQLException {
+        String selectSql = "SELECT entry_id, deleted_at FROM sync_tombstones WHERE user_id = ? " +
+                "AND (deleted_at > ? OR (deleted_at = ? AND entry_id > ?)) ORDER BY deleted_at, entry_id LIMIT ?";
+
+        Timestamp cursorTime = pullCursor(userId, "tombstones_pulled_at");
+        String cursorEntry = "";
+        int removed = 0;
+
+        while (true) {
+            List<String> entryIds = new ArrayList<>();
+            Timestamp lastTime = null;
+
+            try (Connection remote = openCentral();
+                 PreparedStatement select = remote.prepareStatement(selectSql)) {
+                select.setInt(1, userId);
+                select.setTimestamp(2, cursorTime);
+                select.setTimestamp(3, cursorTime);
+                select.setString(4, cursorEntry);
+                select.setInt(5, PAGE_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        entryIds.add(rs.getString("entry_id"));
+                        lastTime = rs.getTimestamp("deleted_at");
+                    }
+                }
+            }
+            if (entryIds.isEmpty()) {
+                return removed;
+            }
+
+            removed += deletePulled(userId, entryIds, lastTime);
+            if (entryIds.size() < PAGE_SIZE) {
+                return removed;
+            }
+            cursorTime = lastTime;
+            cursorEntry = entryIds.get(entryIds.size() - 1);
+        }
+    }
+
+    private int deletePulled(int userId, List<String> entryIds, Timestamp pulledUpTo) throws SQLException {
+        List<TransactionRecord> deleted = new ArrayList<>();
+        try (Connection local = DatabaseManager.openConnection()) {
+            local.setAutoCommit(false);
+            try (PreparedStatement select = local.prepareStatement(
+                    "SELECT transaction_id, type, category, amount, transaction_date, description FROM transactions " +
+                            "WHERE entry_id = ? AND user_id = ? FOR UPDATE");
+                 PreparedStatement delete = local.prepareStatement("DELETE FROM transactions WHERE transaction_id = ?");
+                 PreparedStatement tombstone = local.prepareStatement(
+                         "INSERT INTO sync_tombstones (entry_id, user_id) VALUES (?, ?)")) {
+                for (String entryId : entryIds) {
+                    select.setString(1, entryId);
+                    select.setInt(2, userId);
+                    TransactionRecord row;
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) {
+                            continue;
+                        }
+                        row = readRecord(rs);
+                    }
+
+                    delete.setInt(1, row.getTransactionId());
+                    delete.executeUpdate();
+                    MonthlyRollup.apply(local, userId, row, -1);
+
+                    // Keeps a later overlapping pull from adding the row back
+                    tombstone.setString(1, entryId);
+                    tombstone.setInt(2, userId);
+                    tombstone.executeUpdate();
+                    deleted.add(row);
+                }
+                saveCursor(local, userId, "tombstones_pulled_at", pulledUpTo);
+                local.commit();
+            } catch (SQLException e) {
+                local.rollback();
+                throw e;
+            }
+        }
+
+        for (TransactionRecord row : deleted) {
+            TransactionWrites.deleted(userId, row);
+        }
+        if (!deleted.isEmpty()) {
+            DataVersion.bump();
+        }
+        return deleted.size();
+    }
+
+    /**
+     * Takes the central version of every budget the replica has no pending edit for.
+     * Budgets are few per user, so they are compared in full on every sync.
+     */
+    private int pullBudgets(int userId) throws SQLException {
+        Map<String, BudgetRow> theirs = new HashMap<>();
+        try (Connection remote = openCentral();
+             PreparedStatement select = remote.prepareStatement(
+                     "SELECT category, monthly_limit, version, updated_at FROM budgets WHERE user_id = ?")) {
+            select.setInt(1, userId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    theirs.put(rs.getString("category"), new BudgetRow(rs.getDouble("monthly_limit"),
+                            rs.getInt("version"), rs.getLong("updated_at")));
+                }
+            }
+        }
+
+        int updated = 0;
+        try (Connection local = DatabaseManager.openConnection()) {
+            local.setAutoCommit(false);
+            try (PreparedStatement mine = local.prepareStatement(
+                    "SELECT category, version FROM budgets WHERE user_id = ?");
+                 PreparedStatement pending = local.prepareStatement(
+                         "SELECT entry_key FROM replica_outbox WHERE user_id = ? AND kind = ?");
+                 PreparedStatement upsert = local.prepareStatement(
+                         "INSERT INTO budgets (category, monthly_limit, user_id, version, updated_at) VALUES (?, ?, ?, ?, ?) " +
+                                 "ON DUPLICATE KEY UPDATE monthly_limit = VALUES(monthly_limit), version = VALUES(version), " +
+                                 "updated_at = VALUES(updated_at)")) {
+
+                Map<String, Integer> localVersions = new HashMap<>();
+                mine.setInt(1, userId);
+                try (ResultSet rs = mine.executeQuery()) {
+                    while (rs.next()) {
+                        localVersions.put(rs.getString("category"), rs.getInt("version"));
+                    }
+                }
+                Set<String> edited = new HashSet<>();
+                pending.setInt(1, userId);
+                pending.setString(2, ReplicaOutbox.BUDGET);
+                try (ResultSet rs = pending.executeQuery()) {
+                    while (rs.next()) {
+                        edited.add(rs.getString("entry_key"));
+                    }
+                }
+
+                for (Map.Entry<String, BudgetRow> budget : theirs.entrySet()) {
+                    Integer localVersion = localVersions.get(budget.getKey());
+                    // Pending local edits are settled by the next push, not overwritten here
+                    if (edited.contains(budget.getKey())
+                            || (localVersion != null && localVersion == budget.getValue().version)) {
+                        continue;
+                    }
+                    upsert.setString(1, budget.getKey());
+                    upsert.setDouble(2, budget.getValue().limit);
+                    upsert.setInt(3, userId);
+                    upsert.setInt(4, budget.getValue().version);
+                    upsert.setLong(5, budget.getValue().updatedAt);
+                    upsert.executeUpdate();
+                    updated++;
+                }
+                local.commit();
+            } catch (SQLException e) {
+                local.rollback();
+                throw e;
+            }
+        }
+        if (updated > 0) {
+            BudgetAlertEngine.getInstance().reload(userId);
+            DataVersion.bump();
+        }
+        return updated;
+    }
+
+    /** Where the last pull of a kind stopped, moved back by the overlap; the epoch if never pulled. */
+    private Timestamp pullCursor(int userId, String column) throws SQLException {
+        try (Connection local = DatabaseManager.openConnection();
+             PreparedStatement pstmt = local.prepareStatement("SELECT " + column + " FROM replica_state WHERE user_id = ?")) {
+            pstmt.setInt(1, userId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Timestamp pulledAt = rs.next() ? rs.getTimestamp(1) : null;
+                return pulledAt == null ? new Timestamp(0) : new Timestamp(Math.max(0, pulledAt.getTime() - PULL_OVERLAP_MS));
+            }
+        }
+    }
+
+    private static void saveCursor(Connection local, int userId, String column, Timestamp pulledUpTo) throws SQLException {
+        try (PreparedStatement pstmt = local.prepareStatement(
+                "INSERT INTO replica_state (user_id, " + column + ") VALUES (?, ?) " +
+                        "ON DUPLICATE KEY UPDATE " + column + " = VALUES(" + column + ")")) {
+            pstmt.setInt(1, userId);
+            pstmt.setTimestamp(2, pulledUpTo);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static TransactionRecord readRecord(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("transaction_date");
+        return new TransactionRecord(
+                rs.getInt("transaction_id"),
+                rs.getString("type"),
+                rs.getString("category"),
+                rs.getDouble("amount"),
+                date == null ? null : date.toLocalDate(),
+                rs.getString("description"));
+    }
+}
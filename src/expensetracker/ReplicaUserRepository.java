@@ -0,0 +1,54 @@
+package expensetracker;
+
+import java.sql.SQLException;
+
+/**
+ * {@link UserRepository} for the {@link StorageBackend#REPLICA} backend. Accounts belong to
+ * the central database: sign-up and password changes go there and are then copied into
+ * the replica. A login is checked against the replica first, so a user who has logged in
+ * on this machine before can do so offline; anyone else needs the central database once.
+ */
+public class ReplicaUserRepository implements UserRepository {
+
+    private final ReplicaSync sync = ReplicaSync.getInstance();
+    private final UserRepository local = new JdbcUserRepository();
+    private final UserRepository central = new JdbcUserRepository(sync::openCentral);
+
+    /**
+     * A password changed on another machine is not on the replica until the next sync, so a
+     * mismatch is checked again centrally before it is refused.
+     */
+    @Override
+    public int authenticate(String username, String password) throws SQLException {
+        int userId = local.authenticate(username, password);
+        if (userId > 0) {
+            ReplicaSync.requestSync();
+            return userId;
+        }
+
+        userId = central.authenticate(username, password);
+        if (userId > 0) {
+            sync.importUser(username);
+            ReplicaSync.requestSync();
+        }
+        return userId;
+    }
+
+    @Override
+    public boolean createUser(String username, String password, String email) throws SQLException {
+        if (!central.createUser(username, password, email)) {
+            return false;
+        }
+        sync.importUser(username);
+        return true;
+    }
+
+    @Override
+    public boolean updatePassword(String username, String newPassword) throws SQLException {
+        if (!central.updatePassword(username, newPassword)) {
+            return false;
+        }
+        sync.importUser(username);
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package expensetracker;
+
+/**
+ * The repositories every screen uses. Which database they talk to is decided once by
+ * {@link DatabaseManager} from {@code -Dbudgetbuddy.backend}, see {@link StorageBackend}.
+ */
+public final class Repositories {
+
+    private static final UserRepository USERS = DatabaseManager.getBackend() == StorageBackend.REPLICA
+            ? new ReplicaUserRepository()
+            : new JdbcUserRepository();
+    private static final TransactionRepository TRANSACTIONS = new JdbcTransactionRepository();
+    private static final BudgetRepository BUDGETS = new JdbcBudgetRepository();
+    private static final RecurringRepository RECURRING = new JdbcRecurringRepository();
+
+    private Repositories() {
+    }
+
+    public static UserRepository users() {
+        return USERS;
+    }
+
+    public static TransactionRepository transactions() {
+        return TRANSACTIONS;
+    }
+
+    public static BudgetRepository budgets() {
+        return BUDGETS;
+    }
+
+    public static RecurringRepository recurring() {
+        return RECURRING;
+    }
+}
@@ -0,0 +1,214 @@
+package expensetracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the versioned DDL scripts in {@code /db/migration} that the database has not
+ * seen yet, and records each applied version in {@code schema_version}.
+ * DatabaseManager runs it once, before the first connection is handed out.
+ *
+ * Scripts are named {@code V<version>__<description>.sql} and must be listed in
+ * {@link #MIGRATIONS} in order. Statements are separated by a semicolon at the end of a
+ * line. MySQL commits DDL implicitly, so a script that fails half way is not rolled back;
+ * re-running it is safe because tables use IF NOT EXISTS, and CREATE INDEX, ADD COLUMN
+ * and DROP INDEX are checked against the database metadata first and skipped when the
+ * index or column is already there (or already gone). That check works the same on MySQL
+ * and H2, where the IF [NOT] EXISTS forms differ.
+ */
+public class SchemaMigrator {
+
+    private static final Logger LOG = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final String[] MIGRATIONS = {
+            "V1__core_tables.sql",
+            "V2__performance_indexes.sql",
+            "V3__monthly_category_totals.sql",
+            "V4__drop_username_password_index.sql",
+            "V5__transaction_entry_id.sql",
+            "V6__replica_sync.sql",
+            "V7__daily_totals.sql",
+            "V8__history_filter_indexes.sql",
+            "V9__recurring_transactions.sql",
+    };
+
+    private static final String RESOURCE_DIR = "/db/migration/";
+
+    // The DDL shapes the scripts use that neither dialect can guard with IF [NOT] EXISTS
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_INDEX =
+            Pattern.compile("ALTER\\s+TABLE\\s+(\\w+)\\s+DROP\\s+INDEX\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ADD_COLUMN =
+            Pattern.compile("ALTER\\s+TABLE\\s+(\\w+)\\s+ADD\\s+COLUMN\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String CREATE_VERSION_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT NOT NULL PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    /**
+     * Brings the schema up to the latest version.
+     * @return The number of scripts applied.
+     */
+    public int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE_SQL);
+        }
+
+        int current = currentVersion(conn);
+        int applied = 0;
+
+        for (String script : MIGRATIONS) {
+            int version = versionOf(script);
+            if (version <= current) {
+                continue;
+            }
+
+            long start = System.currentTimeMillis();
+            for (String sql : loadStatements(script)) {
+                execute(conn, sql);
+            }
+            recordVersion(conn, version, descriptionOf(script));
+            applied++;
+
+            LOG.info("Applied schema migration " + script + " in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return applied;
+    }
+
+    /** The highest version recorded in schema_version, or 0 on a fresh database. */
+    public int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void execute(Connection conn, String sql) throws SQLException {
+        if (alreadyApplied(conn, sql)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            throw new SQLException("Migration statement failed: " + sql, e.getSQLState(), e.getErrorCode(), e);
+        }
+    }
+
+    /** True if the statement's index or column change is already in place, e.g. from a half-applied run. */
+    private static boolean alreadyApplied(Connection conn, String sql) throws SQLException {
+        Matcher m = CREATE_INDEX.matcher(sql);
+        if (m.lookingAt()) {
+            return hasIndex(conn, m.group(2), m.group(1));
+        }
+        m = DROP_INDEX.matcher(sql);
+        if (m.lookingAt()) {
+            return !hasIndex(conn, m.group(1), m.group(2));
+        }
+        m = ADD_COLUMN.matcher(sql);
+        if (m.lookingAt()) {
+            return hasColumn(conn, m.group(1), m.group(2));
+        }
+        return false;
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), storedName(meta, table), false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // Listed in full and compared by name: '_' is a wildcard in a column pattern
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(), storedName(meta, table), null)) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The case the database stores an unquoted identifier in
+    private static String storedName(DatabaseMetaData meta, String name) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return meta.storesLowerCaseIdentifiers() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+
+    private void recordVersion(Connection conn, int version, String description) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String descriptionOf(String script) {
+        return script.substring(script.indexOf("__") + 2, script.length() - ".sql".length()).replace('_', ' ');
+    }
+
+    /** Reads a script and splits it into statements, dropping "--" comment lines. */
+    private static List<String> loadStatements(String script) throws SQLException {
+        InputStream in = SchemaMigrator.class.getResourceAsStream(RESOURCE_DIR + script);
+        if (in == null) {
+            throw new SQLException("Migration script not found on the classpath: " + RESOURCE_DIR + script);
+        }
+
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder current = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                if (trimmed.endsWith(";")) {
+                    current.append(trimmed, 0, trimmed.length() - 1);
+                    statements.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(trimmed).append('\n');
+                }
+            }
+            if (current.length() > 0) {
+                statements.add(current.toString());
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration script " + script, e);
+        }
+        return statements;
+    }
+}
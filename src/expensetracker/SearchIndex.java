@@ -0,0 +1,310 @@
+package expensetracker;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over one user's transaction descriptions and categories.
+ * Text is split into lower-case words; each word maps to the sorted list of documents
+ * (one per transaction) that contain it. Words are kept in sorted order, so a query word
+ * also matches every word it is a prefix of, which is what a search-as-you-type box needs.
+ *
+ * A document matches when every query word matches one of its words. Matches are ranked
+ * by the rarity of the words they matched (idf), with a whole-word match counting double a
+ * prefix match, and newer transactions first among equals.
+ *
+ * Deleting a transaction only marks its document dead, found through a map from
+ * transaction id to document; the space is reclaimed the next time the index is loaded. All methods are synchronized, like {@link ColumnarLedger}.
+ */
+public class SearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float PREFIX_WEIGHT = 0.5f;
+
+    private static final String LOAD_SQL =
+            "SELECT transaction_id, category, description, transaction_date FROM transactions WHERE user_id = ? " +
+            "ORDER BY transaction_date, transaction_id";
+
+    /** The outcome of a search: the best transaction ids, best first, and how many matched in all. */
+    public static class Hits {
+        private final List<Integer> transactionIds;
+        private final int totalMatches;
+
+        Hits(List<Integer> transactionIds, int totalMatches) {
+            this.transactionIds = transactionIds;
+            this.totalMatches = totalMatches;
+        }
+
+        public List<Integer> getTransactionIds() { return transactionIds; }
+
+        public int getTotalMatches() { return totalMatches; }
+    }
+
+    /** The sorted documents that contain one word. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size = 0;
+
+        void add(int doc) {
+            // Documents are numbered in insertion order, so appending keeps the list sorted
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private final int userId;
+
+    // Per document: its transaction and date; dead documents are cleared in live
+    private int docCount = 0;
+    private int[] transactionIds = new int[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private final BitSet live = new BitSet();
+    private int liveCount = 0;
+    // transaction_id -> its live document
+    private final IntIntMap docsById = new IntIntMap();
+
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+
+    public SearchIndex(int userId) {
+        this.userId = userId;
+    }
+
+    /** Indexes all of the user's transactions, streaming the rows. */
+    public static SearchIndex load(int userId) throws SQLException {
+        SearchIndex index = new SearchIndex(userId);
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.SEARCH_INDEX_LOAD);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseManager.streamResults(pstmt);
+            pstmt.setInt(1, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Date date = rs.getDate("transaction_date");
+                    index.append(rs.getInt("transaction_id"), rs.getString("category"), rs.getString("description"),
+                            date == null ? 0 : (int) date.toLocalDate().toEpochDay());
+                }
+            }
+            timer.rows(index.size());
+        }
+        return index;
+    }
+
+    public int getUserId() { return userId; }
+
+    /** The number of live transactions. */
+    public synchronized int size() { return liveCount; }
+
+    /** Indexes a stored transaction. */
+    public synchronized void add(TransactionRecord transaction) {
+        append(transaction.getTransactionId(), transaction.getCategory(), transaction.getDescription(),
+                transaction.getDate() == null ? 0 : (int) transaction.getDate().toEpochDay());
+    }
+
+    /**
+     * Removes a transaction by id.
+     * @return true if the index held it.
+     */
+    public synchronized boolean remove(int transactionId) {
+        int doc = docsById.remove(transactionId);
+        if (doc == IntIntMap.MISSING) {
+            return false;
+        }
+        live.clear(doc);
+        liveCount--;
+        return true;
+    }
+
+    /**
+     * Finds the transactions whose description or category contains every word of the
+     * query, each as a whole word or a word prefix.
+     * @param limit The most ids to return.
+     */
+    public synchronized Hits search(String query, int limit) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty() || liveCount == 0) {
+            return new Hits(List.of(), 0);
+        }
+
+        // Per query word: the index words it matches, the whole word first
+        List<List<Map.Entry<String, Postings>>> matches = new ArrayList<>();
+        for (String queryWord : queryWords) {
+            List<Map.Entry<String, Postings>> matched = new ArrayList<>();
+            Postings exact = words.get(queryWord);
+            if (exact != null) {
+                matched.add(Map.entry(queryWord, exact));
+            }
+            NavigableMap<String, Postings> prefixed = words.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false);
+            matched.addAll(prefixed.entrySet());
+            if (matched.isEmpty()) {
+                return new Hits(List.of(), 0);
+            }
+            matches.add(matched);
+        }
+
+        // The rarest query word narrows the candidates first
+        matches.sort(Comparator.comparingLong(SearchIndex::postingsSize));
+        BitSet candidates = null;
+        for (List<Map.Entry<String, Postings>> matched : matches) {
+            BitSet docs = new BitSet(docCount);
+            for (Map.Entry<String, Postings> word : matched) {
+                Postings postings = word.getValue();
+                for (int i = 0; i < postings.size; i++) {
+                    docs.set(postings.docs[i]);
+                }
+            }
+            if (candidates == null) {
+                candidates = docs;
+                candidates.and(live);
+            } else {
+                candidates.and(docs);
+            }
+            if (candidates.isEmpty()) {
+                return new Hits(List.of(), 0);
+            }
+        }
+
+        float[] scores = score(candidates, matches, queryWords);
+        return new Hits(top(candidates, scores, limit), candidates.cardinality());
+    }
+
+    /** Per document, the sum over query words of the best weight it matched that word with. */
+    private float[] score(BitSet candidates, List<List<Map.Entry<String, Postings>>> matches, List<String> queryWords) {
+        float[] scores = new float[docCount];
+        for (List<Map.Entry<String, Postings>> matched : matches) {
+            // Heaviest first, so each document is credited with its best match only
+            List<Map.Entry<String, Postings>> byWeight = new ArrayList<>(matched);
+            byWeight.sort(Comparator.comparingDouble(word -> -weight(word, queryWords)));
+
+            BitSet credited = new BitSet(docCount);
+            for (Map.Entry<String, Postings> word : byWeight) {
+                float weight = weight(word, queryWords);
+                Postings postings = word.getValue();
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (candidates.get(doc) && !credited.get(doc)) {
+                        credited.set(doc);
+                        scores[doc] += weight;
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private float weight(Map.Entry<String, Postings> word, List<String> queryWords) {
+        float idf = (float) Math.log(1.0 + (double) liveCount / Math.max(1, word.getValue().size));
+        return queryWords.contains(word.getKey()) ? idf : idf * PREFIX_WEIGHT;
+    }
+
+    /** The best {@code limit} candidates, best first: by score, then newest date, then newest row. */
+    private List<Integer> top(BitSet candidates, float[] scores, int limit) {
+        Comparator<Integer> rank = (a, b) -> compareRank(scores, a, b);
+
+        // Min-heap of the best seen so far. Scanning newest rows first means an older row
+        // with the same score never displaces one, so the heap is rarely touched.
+        PriorityQueue<Integer> best = new PriorityQueue<>(rank);
+        for (int doc = candidates.previousSetBit(docCount - 1); doc >= 0; doc = candidates.previousSetBit(doc - 1)) {
+            if (best.size() < limit) {
+                best.add(doc);
+            } else if (compareRank(scores, doc, best.peek()) > 0) {
+                best.poll();
+                best.add(doc);
+            }
+        }
+
+        Integer[] ranked = best.toArray(new Integer[0]);
+        Arrays.sort(ranked, rank.reversed());
+        List<Integer> ids = new ArrayList<>(ranked.length);
+        for (int doc : ranked) {
+            ids.add(transactionIds[doc]);
+        }
+        return ids;
+    }
+
+    private int compareRank(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byDate = Integer.compare(epochDays[a], epochDays[b]);
+        return byDate != 0 ? byDate : Integer.compare(a, b);
+    }
+
+    private static long postingsSize(List<Map.Entry<String, Postings>> matched) {
+        long size = 0;
+        for (Map.Entry<String, Postings> word : matched) {
+            size += word.getValue().size;
+        }
+        return size;
+    }
+
+    private void append(int transactionId, String category, String description, int epochDay) {
+        if (docCount == transactionIds.length) {
+            int capacity = transactionIds.length * 2;
+            transactionIds = Arrays.copyOf(transactionIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+        }
+        int doc = docCount++;
+        transactionIds[doc] = transactionId;
+        epochDays[doc] = epochDay;
+        live.set(doc);
+        liveCount++;
+        docsById.put(transactionId, doc);
+
+        for (String word : tokenize(category)) {
+            words.computeIfAbsent(word, key -> new Postings()).add(doc);
+        }
+        for (String word : tokenize(description)) {
+            words.computeIfAbsent(word, key -> new Postings()).add(doc);
+        }
+    }
+
+    /** The distinct lower-case words of a text, split at anything that is not a letter or digit. */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Set<String> found = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                found.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "search index for user " + userId + " (" + liveCount + " transactions, " + words.size() + " words)";
+    }
+}
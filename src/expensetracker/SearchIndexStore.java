@@ -0,0 +1,61 @@
+package expensetracker;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds the {@link SearchIndex} of the logged-in user: built in the background right
+ * after login, then kept in step with every insert and delete.
+ *
+ * Start with {@code -Dbudgetbuddy.search=false} to turn it off; while {@link #get}
+ * returns null, searches fall back to a (slow) LIKE query.
+ */
+public class SearchIndexStore implements TransactionWriteListener {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("budgetbuddy.search", "true"));
+
+    private static final SearchIndexStore INSTANCE = new SearchIndexStore();
+
+    static {
+        TransactionWrites.register(INSTANCE);
+    }
+
+    private final SessionStore<SearchIndex> store = new SessionStore<>("search index", ENABLED, SearchIndex::load);
+
+    public static SearchIndexStore getInstance() {
+        return INSTANCE;
+    }
+
+    /** Drops any previous user's index and starts building this user's in the background. */
+    public CompletableFuture<SearchIndex> open(int userId) {
+        return store.open(userId);
+    }
+
+    /** Forgets the index, e.g. on logout. */
+    public void close() {
+        store.close();
+    }
+
+    /** The user's index if it is built and current, or null if callers should query the database. */
+    public SearchIndex get(int userId) {
+        return store.get(userId);
+    }
+
+    /** Indexes a newly inserted transaction. */
+    @Override
+    public void recordInsert(int userId, TransactionRecord transaction) {
+        store.update(userId, index -> index.add(transaction));
+    }
+
+    /** Takes a deleted transaction out of the index. */
+    @Override
+    public void recordDelete(int userId, TransactionRecord transaction) {
+        store.update(userId, index -> index.remove(transaction.getTransactionId()));
+    }
+
+    /** Rebuilds the user's index after a bulk change such as an import. */
+    @Override
+    public void reload(int userId) {
+        store.reload(userId);
+    }
+}
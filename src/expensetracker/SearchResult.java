@@ -0,0 +1,22 @@
+package expensetracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of search matches, best first, with the number of matches in all.
+ */
+public class SearchResult {
+
+    private final List<TransactionRecord> transactions;
+    private final int totalMatches;
+
+    public SearchResult(List<TransactionRecord> transactions, int totalMatches) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.totalMatches = totalMatches;
+    }
+
+    public List<TransactionRecord> getTransactions() { return transactions; }
+
+    public int getTotalMatches() { return totalMatches; }
+}
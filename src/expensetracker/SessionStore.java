@@ -0,0 +1,164 @@
+package expensetracker;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Holds one in-memory structure built for the logged-in user, such as the
+ * {@link ColumnarLedger} behind {@link ColumnarStore} or the {@link SearchIndex} behind
+ * {@link SearchIndexStore}. It is loaded in the background right after login, kept in
+ * step by its owner on every write, and dropped on logout.
+ *
+ * Every write moves a sequence number forward, so a load that overlapped a write (and so
+ * may have missed it) is thrown away and retried. A load that keeps racing with writes
+ * gives up; until the next reload {@link #get} returns null and readers use the database.
+ */
+final class SessionStore<T> {
+
+    /** Reads the structure for one user from the database. */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load(int userId) throws SQLException;
+    }
+
+    private static final Logger LOG = Logger.getLogger(SessionStore.class.getName());
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final String name;
+    private final boolean enabled;
+    private final Loader<T> loader;
+
+    private int sessionUserId = -1;
+    private T value;
+    private long writeSequence = 0;
+
+    /**
+     * @param name What is held, for log messages, e.g. "columnar ledger".
+     * @param enabled False to never load anything, so {@link #get} always returns null.
+     */
+    SessionStore(String name, boolean enabled, Loader<T> loader) {
+        this.name = name;
+        this.enabled = enabled;
+        this.loader = loader;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drops any previous user's value and starts loading this user's in the background.
+     * @return A future with the loaded value, or null if the store is off or the load gave up.
+     */
+    CompletableFuture<T> open(int userId) {
+        synchronized (this) {
+            sessionUserId = userId;
+            value = null;
+        }
+        return loadAsync(userId);
+    }
+
+    /** Forgets the value, e.g. on logout. */
+    synchronized void close() {
+        sessionUserId = -1;
+        value = null;
+    }
+
+    /** The user signed in since the last {@link #open}, or -1. */
+    synchronized int getSessionUserId() {
+        return sessionUserId;
+    }
+
+    /** The user's value if it is loaded and current, never touching the database; else null. */
+    synchronized T get(int userId) {
+        return sessionUserId == userId ? value : null;
+    }
+
+    /** Applies a committed write to the user's value, if it is loaded. */
+    void update(int userId, Consumer<T> change) {
+        write(userId, current -> {
+            change.accept(current);
+            return null;
+        });
+    }
+
+    /**
+     * Applies a committed write to the user's value under the store's lock. A load in
+     * flight is retried, so it cannot miss the write.
+     * @return What the change returned, or null if no value is loaded.
+     */
+    synchronized <R> R write(int userId, Function<T, R> change) {
+        writeSequence++;
+        T current = get(userId);
+        return current == null ? null : change.apply(current);
+    }
+
+    /**
+     * Runs a read, or bookkeeping that is not a database write, on the user's value under
+     * the store's lock.
+     * @return What the action returned, or null if no value is loaded.
+     */
+    synchronized <R> R read(int userId, Function<T, R> action) {
+        T current = get(userId);
+        return current == null ? null : action.apply(current);
+    }
+
+    /**
+     * Reloads the user's value after a bulk change (such as an import) whose rows are
+     * cheaper to re-read than to replay one by one.
+     * @return A future with the new value, or null if the user is not signed in or the load gave up.
+     */
+    CompletableFuture<T> reload(int userId) {
+        synchronized (this) {
+            writeSequence++;
+            if (sessionUserId != userId) {
+                return CompletableFuture.completedFuture(null);
+            }
+            value = null;
+        }
+        return loadAsync(userId);
+    }
+
+    private CompletableFuture<T> loadAsync(int userId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return DbExecutor.submit(() -> load(userId)).exceptionally(error -> {
+            // Not fatal: readers fall back to the database while nothing is loaded
+            LOG.warning("Could not load the " + name + " for user " + userId + ": "
+                    + DbExecutor.rootCause(error).getMessage());
+            return null;
+        });
+    }
+
+    private T load(int userId) throws SQLException {
+        for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+            long sequenceAtLoad;
+            synchronized (this) {
+                if (sessionUserId != userId) {
+                    return null;
+                }
+                sequenceAtLoad = writeSequence;
+            }
+
+            long start = System.currentTimeMillis();
+            T loaded = loader.load(userId);
+
+            synchronized (this) {
+                if (sessionUserId != userId) {
+                    return null;
+                }
+                if (writeSequence == sequenceAtLoad) {
+                    value = loaded;
+                    LOG.info("Loaded " + loaded + " in " + (System.currentTimeMillis() - start) + " ms");
+                    return loaded;
+                }
+            }
+        }
+        return null;
+    }
+}
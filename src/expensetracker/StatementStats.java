@@ -0,0 +1,39 @@
+package expensetracker;
+
+/**
+ * How often one SQL text was served from the pool's prepared statement cache.
+ * Every miss is a parse (and, with server-side statements, a prepare round trip).
+ */
+public class StatementStats {
+
+    private final String sql;
+    private final long hits;
+    private final long misses;
+
+    public StatementStats(String sql, long hits, long misses) {
+        this.sql = sql;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public String getSql() { return sql; }
+
+    public long getHits() { return hits; }
+
+    public long getMisses() { return misses; }
+
+    public long getPrepares() {
+        return hits + misses;
+    }
+
+    /** Share of prepares served from the cache, 0 to 1. */
+    public double getHitRatio() {
+        long prepares = getPrepares();
+        return prepares == 0 ? 0.0 : (double) hits / prepares;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%6.1f%% of %,d prepares: %s", 100 * getHitRatio(), getPrepares(), sql);
+    }
+}
@@ -0,0 +1,77 @@
+package expensetracker;
+
+import java.nio.file.Path;
+
+/**
+ * The databases BudgetBuddy can run on, chosen with {@code -Dbudgetbuddy.backend=mysql|embedded|replica}.
+ *
+ * MYSQL talks to a MySQL server. EMBEDDED keeps everything in one local H2 file (set its
+ * location with {@code -Dbudgetbuddy.embedded.path}), opened in-process in milliseconds
+ * and with no server to install, for single-user installs and quick test runs. H2 runs in
+ * MySQL mode, so both backends share the same SQL and migrations.
+ *
+ * REPLICA is the offline-first mode: the app reads and writes a local H2 copy of its
+ * users' ledgers ({@code -Dbudgetbuddy.replica.path}), and {@link ReplicaSync} keeps that
+ * copy in step with the central MySQL database in the background.
+ */
+public enum StorageBackend {
+
+    // rewriteBatchedStatements lets the driver send a JDBC batch as multi-row INSERTs (used by CsvImporter).
+    // useServerPrepStmts makes prepared statements real server-side statements, so a statement the
+    // pool keeps open (see ConnectionPool) is parsed and planned by MySQL only once.
+    MYSQL("com.mysql.cj.jdbc.Driver", "root", "Solamata@18", Integer.MIN_VALUE) {
+        @Override
+        String defaultUrl() {
+            return "jdbc:mysql://localhost:3306/expense_income_db?rewriteBatchedStatements=true&useServerPrepStmts=true";
+        }
+    },
+
+    EMBEDDED("org.h2.Driver", "sa", "", 1_000) {
+        @Override
+        String defaultUrl() {
+            String path = System.getProperty("budgetbuddy.embedded.path",
+                    Path.of(System.getProperty("user.home"), ".budgetbuddy", "budgetbuddy").toString());
+            return "jdbc:h2:file:" + path + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        }
+    },
+
+    REPLICA("org.h2.Driver", "sa", "", 1_000) {
+        @Override
+        String defaultUrl() {
+            String path = System.getProperty("budgetbuddy.replica.path",
+                    Path.of(System.getProperty("user.home"), ".budgetbuddy", "replica").toString());
+            return "jdbc:h2:file:" + path + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        }
+    };
+
+    private final String driverClass;
+    private final String defaultUser;
+    private final String defaultPassword;
+    private final int streamingFetchSize;
+
+    StorageBackend(String driverClass, String defaultUser, String defaultPassword, int streamingFetchSize) {
+        this.driverClass = driverClass;
+        this.defaultUser = defaultUser;
+        this.defaultPassword = defaultPassword;
+        this.streamingFetchSize = streamingFetchSize;
+    }
+
+    abstract String defaultUrl();
+
+    String getDriverClass() { return driverClass; }
+
+    String getDefaultUser() { return defaultUser; }
+
+    String getDefaultPassword() { return defaultPassword; }
+
+    /**
+     * The fetch size that makes the driver stream a large result set. Connector/J only
+     * streams with Integer.MIN_VALUE, which other drivers reject.
+     */
+    int getStreamingFetchSize() { return streamingFetchSize; }
+
+    /** The backend named by {@code -Dbudgetbuddy.backend}, MYSQL if unset. */
+    static StorageBackend fromSystemProperty() {
+        return valueOf(System.getProperty("budgetbuddy.backend", "mysql").trim().toUpperCase());
+    }
+}
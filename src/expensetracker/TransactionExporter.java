@@ -0,0 +1,188 @@
+package expensetracker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's full transaction history to a CSV or JSON Lines file, optionally gzipped.
+ * Rows go straight from a forward-only result set to a buffered writer, so the export never
+ * holds more than one row in memory however long the history is.
+ *
+ * CSV output uses the same leading columns as {@link CsvImporter}, so an export can be
+ * imported again.
+ */
+public class TransactionExporter {
+
+    /** Output layouts. */
+    public enum Format {
+        CSV,
+        JSON_LINES;
+
+        /** Picks the format from a file name: ".jsonl"/".json" (optionally + ".gz") means JSON Lines. */
+        public static Format forFileName(String fileName) {
+            String name = stripGzipSuffix(fileName.toLowerCase());
+            return (name.endsWith(".jsonl") || name.endsWith(".json")) ? JSON_LINES : CSV;
+        }
+    }
+
+    /** Receives the running row count; called on the export thread. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long rowsWritten);
+    }
+
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String EXPORT_SQL =
+            "SELECT transaction_id, type, amount, category, transaction_date, description FROM transactions " +
+            "WHERE user_id = ? ORDER BY transaction_date, transaction_id";
+
+    /**
+     * Writes all of the user's transactions to {@code target}, oldest first.
+     * @return The number of rows written.
+     */
+    public long export(int userId, Path target, Format format, boolean gzip, ProgressListener listener)
+            throws IOException, SQLException {
+        long rows = 0;
+
+        try (QueryTimer timer = QueryMetrics.start(QueryMetrics.EXPORT);
+             Connection conn = DatabaseManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(EXPORT_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Writer out = openWriter(target, gzip)) {
+
+            // Stream rows one at a time instead of buffering the whole result set on the client
+            DatabaseManager.streamResults(pstmt);
+            pstmt.setInt(1, userId);
+
+            if (format == Format.CSV) {
+                out.write("type,amount,category,date,description,transaction_id\n");
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, rs);
+                    } else {
+                        writeJsonRow(out, rs);
+                    }
+
+                    rows++;
+                    if (listener != null && rows % PROGRESS_INTERVAL == 0) {
+                        listener.onProgress(rows);
+                    }
+                }
+            }
+            timer.rows(rows);
+        }
+
+        if (listener != null) {
+            listener.onProgress(rows);
+        }
+        return rows;
+    }
+
+    /** True if the file name asks for gzip compression. */
+    public static boolean isGzipFileName(String fileName) {
+        return fileName.toLowerCase().endsWith(".gz");
+    }
+
+    private static String stripGzipSuffix(String fileName) {
+        return isGzipFileName(fileName) ? fileName.substring(0, fileName.length() - 3) : fileName;
+    }
+
+    private static Writer openWriter(Path target, boolean gzip) throws IOException {
+        if (!gzip) {
+            return Files.newBufferedWriter(target, StandardCharsets.UTF_8);
+        }
+        OutputStream stream = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void writeCsvRow(Writer out, ResultSet rs) throws IOException, SQLException {
+        out.write(csvField(rs.getString("type")));
+        out.write(',');
+        out.write(plainAmount(rs.getBigDecimal("amount")));
+        out.write(',');
+        out.write(csvField(rs.getString("category")));
+        out.write(',');
+        out.write(dateText(rs.getDate("transaction_date")));
+        out.write(',');
+        out.write(csvField(rs.getString("description")));
+        out.write(',');
+        out.write(Integer.toString(rs.getInt("transaction_id")));
+        out.write('\n');
+    }
+
+    private static void writeJsonRow(Writer out, ResultSet rs) throws IOException, SQLException {
+        out.write("{\"transaction_id\":");
+        out.write(Integer.toString(rs.getInt("transaction_id")));
+        out.write(",\"type\":");
+        out.write(jsonString(rs.getString("type")));
+        out.write(",\"amount\":");
+        out.write(plainAmount(rs.getBigDecimal("amount")));
+        out.write(",\"category\":");
+        out.write(jsonString(rs.getString("category")));
+        out.write(",\"date\":");
+        Date date = rs.getDate("transaction_date");
+        out.write(date == null ? "null" : jsonString(date.toString()));
+        out.write(",\"description\":");
+        out.write(jsonString(rs.getString("description")));
+        out.write("}\n");
+    }
+
+    private static String plainAmount(BigDecimal amount) {
+        return amount == null ? "0" : amount.toPlainString();
+    }
+
+    private static String dateText(Date date) {
+        return date == null ? "" : date.toString();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
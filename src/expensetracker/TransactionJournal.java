@@ -0,0 +1,345 @@
+package expensetracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Write-behind log for saved transactions. A save is appended to a local journal file
+ * and fsync'd, which is all the user waits for; a background flusher then writes the
+ * pending entries to the database in batches, one database transaction per batch, and
+ * retries with backoff while the database is unreachable. The journal is emptied once
+ * every entry in it is committed.
+ *
+ * Entries left in the file by a crash or an exit are replayed on the next start. Each
+ * carries a client-generated entry id that is unique in the database, so an entry that
+ * was committed just before the crash is skipped instead of stored twice.
+ *
+ * An entry the database refuses outright (a value it cannot store, say) is moved to a
+ * {@code .rejected} file next to the journal, so it cannot hold up the entries behind it.
+ *
+ * The file is {@code -Dbudgetbuddy.journal.path} (~/.budgetbuddy/transactions.journal by
+ * default). With {@code -Dbudgetbuddy.journal=false}, or when the file cannot be used,
+ * saves go straight to the database as before.
+ */
+public class TransactionJournal {
+
+    private static final Logger LOG = Logger.getLogger(TransactionJournal.class.getName());
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("budgetbuddy.journal", "true"));
+    private static final Path JOURNAL_PATH = Path.of(System.getProperty("budgetbuddy.journal.path",
+            Path.of(System.getProperty("user.home"), ".budgetbuddy", "transactions.journal").toString()));
+    private static final int BATCH_SIZE = Integer.getInteger("budgetbuddy.journal.batchSize", 500);
+
+    private static final long MIN_RETRY_MS = 1_000;
+    private static final long MAX_RETRY_MS = 30_000;
+
+    private static final TransactionJournal INSTANCE = new TransactionJournal(JOURNAL_PATH);
+
+    private final Path path;
+    private final Path rejectedPath;
+    private final TransactionRepository transactions = Repositories.transactions();
+
+    // Entries in the file that are not committed yet, oldest first
+    private final List<PendingTransaction> pending = new ArrayList<>();
+
+    private FileChannel channel;
+    private FileLock lock;
+    private long fileSize = 0;
+
+    private TransactionJournal(Path path) {
+        this.path = path;
+        this.rejectedPath = path.resolveSibling(path.getFileName() + ".rejected");
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            open();
+        } catch (IOException e) {
+            LOG.warning("Transaction journal " + path + " unavailable, saving directly to the database: " + e.getMessage());
+            closeQuietly();
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+
+        Thread flusher = new Thread(this::flushLoop, "BudgetBuddy-journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** The journal shared by every screen. The first call replays what a previous run left behind. */
+    public static TransactionJournal getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Saves a transaction. Returns as soon as it is durable in the journal; use
+     * {@link PendingTransaction#whenStored()} to act once it is in the database.
+     * Without a usable journal the row is inserted directly instead.
+     */
+    public PendingTransaction save(int userId, String type, double amount, String category,
+                                   String description, LocalDate date) throws SQLException {
+        PendingTransaction entry = new PendingTransaction(userId, type, amount, category, description, date);
+
+        synchronized (this) {
+            if (channel != null) {
+                try {
+                    append(entry);
+                    pending.add(entry);
+                    notifyAll();
+                    return entry;
+                } catch (IOException e) {
+                    LOG.warning("Could not append to the transaction journal, saving directly: " + e.getMessage());
+                }
+            }
+        }
+
+        entry.markStored(transactions.insertTransaction(userId, type, amount, category, description, date));
+        return entry;
+    }
+
+    /** Where entries the database refused are kept, one journal line each. */
+    public Path getRejectedPath() {
+        return rejectedPath;
+    }
+
+    /** Entries durable on disk but not yet committed to the database. */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        lock = channel.tryLock();
+        if (lock == null) {
+            // A second copy of the app owns the journal; two flushers would replay each other's entries
+            LOG.warning("Transaction journal " + path + " is in use by another instance, saving directly to the database.");
+            closeQuietly();
+            return;
+        }
+        replay();
+    }
+
+    /** Reads the entries a previous run left behind, dropping a half-written last line. */
+    private void replay() throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        int lineStart = 0;
+        int skipped = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            PendingTransaction entry = decode(new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            if (entry != null) {
+                pending.add(entry);
+            } else {
+                skipped++;
+            }
+            lineStart = i + 1;
+        }
+
+        if (lineStart < content.length) {
+            // A crash during an append; that save was never acknowledged
+            channel.truncate(lineStart);
+            channel.force(true);
+        }
+        fileSize = lineStart;
+
+        if (!pending.isEmpty() || skipped > 0) {
+            LOG.info("Replaying " + pending.size() + " journaled transactions"
+                    + (skipped > 0 ? " (" + skipped + " unreadable entries skipped)" : ""));
+        }
+    }
+
+    private void append(PendingTransaction entry) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(encode(entry).getBytes(StandardCharsets.UTF_8));
+        long position = fileSize;
+        try {
+            while (line.hasRemaining()) {
+                position += channel.write(line, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Cut off whatever part of the line made it, so the next append starts on a clean line
+            channel.truncate(fileSize);
+            throw e;
+        }
+        fileSize = position;
+    }
+
+    private void flushLoop() {
+        long retryMs = MIN_RETRY_MS;
+        // After a batch is refused, its entries are retried one by one to find the bad one
+        int isolating = 0;
+        while (true) {
+            List<PendingTransaction> batch;
+            synchronized (this) {
+                while (pending.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                // Everything saved while the previous batch was being written goes in together
+                batch = new ArrayList<>(pending.subList(0, Math.min(isolating > 0 ? 1 : BATCH_SIZE, pending.size())));
+            }
+
+            List<TransactionRecord> stored;
+            try {
+                stored = transactions.insertTransactions(batch);
+            } catch (SQLException | RuntimeException e) {
+                if (e instanceof SQLException && DatabaseManager.isDataError((SQLException) e)) {
+                    if (batch.size() > 1) {
+                        isolating = batch.size();
+                        continue;
+                    }
+                    if (reject(batch.get(0), (SQLException) e)) {
+                        isolating = Math.max(0, isolating - 1);
+                        continue;
+                    }
+                }
+                LOG.warning("Could not write " + batch.size() + " journaled transactions, retrying in "
+                        + retryMs + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+                continue;
+            }
+            retryMs = MIN_RETRY_MS;
+            isolating = Math.max(0, isolating - batch.size());
+
+            trim(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).markStored(stored.get(i));
+            }
+        }
+    }
+
+    /**
+     * Moves an entry the database will never accept to the rejected file and out of the
+     * journal. Returns false if the rejected file cannot be written, so it is retried.
+     */
+    private boolean reject(PendingTransaction entry, SQLException cause) {
+        LOG.warning("Journal entry " + entry.getEntryId() + " was refused by the database, moving it to "
+                + rejectedPath + ": " + cause.getMessage());
+        try {
+            Files.writeString(rejectedPath, encode(entry), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            LOG.warning("Could not write " + rejectedPath + ": " + e.getMessage());
+            return false;
+        }
+        trim(1);
+        entry.markRejected();
+        return true;
+    }
+
+    /** Drops committed entries, and empties the file once nothing in it is pending. */
+    private synchronized void trim(int committed) {
+        pending.subList(0, committed).clear();
+        if (!pending.isEmpty()) {
+            return;
+        }
+        try {
+            channel.truncate(0);
+            channel.force(true);
+            fileSize = 0;
+        } catch (IOException e) {
+            // Harmless: the committed entries are skipped by id when they are replayed
+            LOG.warning("Could not empty the transaction journal: " + e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+            // Nothing was written through it
+        }
+        channel = null;
+        lock = null;
+    }
+
+    // One entry per line: CRC32 of the payload, then the tab-separated, escaped fields
+    private static String encode(PendingTransaction entry) {
+        String payload = String.join("\t",
+                entry.getEntryId(),
+                Integer.toString(entry.getUserId()),
+                escape(entry.getType()),
+                Double.toString(entry.getAmount()),
+                escape(entry.getCategory()),
+                entry.getDate().toString(),
+                escape(entry.getDescription() == null ? "" : entry.getDescription()));
+        return Long.toHexString(checksum(payload)) + "\t" + payload + "\n";
+    }
+
+    private static PendingTransaction decode(String line) {
+        int separator = line.indexOf('\t');
+        if (separator < 0) {
+            return null;
+        }
+        String payload = line.substring(separator + 1);
+        try {
+            if (Long.parseLong(line.substring(0, separator), 16) != checksum(payload)) {
+                return null;
+            }
+            String[] fields = payload.split("\t", -1);
+            if (fields.length != 7) {
+                return null;
+            }
+            return new PendingTransaction(fields[0], Integer.parseInt(fields[1]), unescape(fields[2]),
+                    Double.parseDouble(fields[3]), unescape(fields[4]), unescape(fields[6]), LocalDate.parse(fields[5]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                out.append(c);
+                continue;
+            }
+            char next = value.charAt(++i);
+            out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package expensetracker;
+
+import java.time.LocalDate;
+
+/**
+ * What the transaction history shows: optional filters on type, category, date range and
+ * amount range, and the column it is sorted by. Every filter left null matches all rows.
+ * The repository turns it into one parameterized statement, so only the matching page
+ * ever leaves the database.
+ */
+public class TransactionQuery {
+
+    /** The column the history is ordered by; ties are broken by date, then row id. */
+    public enum Sort {
+        DATE("transaction_date"),
+        AMOUNT("amount"),
+        CATEGORY("category", "transaction_date"),
+        TYPE("type", "transaction_date");
+
+        private final String[] columns;
+
+        Sort(String... columns) {
+            this.columns = columns;
+        }
+
+        /** The ORDER BY columns before transaction_id, which every sort ends with. */
+        String[] getColumns() { return columns; }
+    }
+
+    /** Every transaction, newest first: the history as it was before filters existed. */
+    public static final TransactionQuery ALL = new TransactionQuery(null, null, null, null, null, null, Sort.DATE, true);
+
+    private final String type;
+    private final String category;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final Double minAmount;
+    private final Double maxAmount;
+    private final Sort sort;
+    private final boolean descending;
+
+    /**
+     * @param fromDate First day included, or null.
+     * @param toDate Last day included, or null.
+     */
+    public TransactionQuery(String type, String category, LocalDate fromDate, LocalDate toDate,
+                            Double minAmount, Double maxAmount, Sort sort, boolean descending) {
+        this.type = type;
+        this.category = category;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.sort = sort;
+        this.descending = descending;
+    }
+
+    /** The same filters in another order. */
+    public TransactionQuery withSort(Sort sort, boolean descending) {
+        return new TransactionQuery(type, category, fromDate, toDate, minAmount, maxAmount, sort, descending);
+    }
+
+    public String getType() { return type; }
+
+    public String getCategory() { return category; }
+
+    public LocalDate getFromDate() { return fromDate; }
+
+    public LocalDate getToDate() { return toDate; }
+
+    public Double getMinAmount() { return minAmount; }
+
+    public Double getMaxAmount() { return maxAmount; }
+
+    public Sort getSort() { return sort; }
+
+    public boolean isDescending() { return descending; }
+
+    /** True if any filter is set, so not every row is shown. */
+    public boolean isFiltered() {
+        return type != null || category != null || fromDate != null || toDate != null
+                || minAmount != null || maxAmount != null;
+    }
+}
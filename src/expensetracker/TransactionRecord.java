@@ -0,0 +1,58 @@
+package expensetracker;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the 'transactions' table, as shown in the reports table.
+ */
+public class TransactionRecord {
+
+    /** Longest description the 'description' column holds. */
+    public static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    // DECIMAL(12,2): ten digits before the point, in cents
+    private static final long MAX_AMOUNT_CENTS = 999_999_999_999L;
+
+    private final int transactionId;
+    private final String type;
+    private final String category;
+    private final double amount;
+    private final LocalDate date;
+    private final String description;
+
+    public TransactionRecord(int transactionId, String type, String category,
+                             double amount, LocalDate date, String description) {
+        this.transactionId = transactionId;
+        this.type = type;
+        this.category = category;
+        this.amount = amount;
+        this.date = date;
+        this.description = description;
+    }
+
+    public int getTransactionId() { return transactionId; }
+
+    /** "Income" or "Expense". */
+    public String getType() { return type; }
+
+    public String getCategory() { return category; }
+
+    public double getAmount() { return amount; }
+
+    public LocalDate getDate() { return date; }
+
+    public String getDescription() { return description; }
+
+    public boolean isExpense() {
+        return "Expense".equals(type);
+    }
+
+    /**
+     * Whether the amount fits the DECIMAL(12,2) 'amount' column once rounded to cents.
+     * Checked before a save is acknowledged, because the journal flusher and the importer
+     * only find out at INSERT time, after the user has moved on.
+     */
+    public static boolean isStorableAmount(double amount) {
+        return Double.isFinite(amount) && Math.round(Math.abs(amount) * 100) <= MAX_AMOUNT_CENTS;
+    }
+}
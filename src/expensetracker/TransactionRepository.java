@@ -0,0 +1,79 @@
+package expensetracker;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Storage for a user's transactions and the aggregates read from them.
+ * Writes keep the monthly rollup and the in-memory caches in step.
+ */
+public interface TransactionRepository {
+
+    /**
+     * Stores a new transaction.
+     * @return The stored row, including its generated transaction_id.
+     */
+    TransactionRecord insertTransaction(int userId, String type, double amount, String category,
+                                        String description, LocalDate date) throws SQLException;
+
+    /**
+     * Stores journaled transactions in one database transaction. Entries whose entry id
+     * is already stored (a replay) or whose user is gone are skipped; a value the database
+     * cannot store fails the batch with a data error.
+     * @return The stored row per entry, in order, with null for each skipped entry.
+     */
+    List<TransactionRecord> insertTransactions(List<PendingTransaction> entries) throws SQLException;
+
+    /**
+     * Deletes one of the user's transactions.
+     * @return true if a row was removed.
+     */
+    boolean deleteTransaction(int userId, TransactionRecord transaction) throws SQLException;
+
+    /**
+     * Deletes many of the user's transactions in one database transaction.
+     * @return The rows that were removed; ids that are not (or no longer) stored are skipped.
+     */
+    List<TransactionRecord> deleteTransactions(int userId, List<Integer> transactionIds) throws SQLException;
+
+    /** The number of transactions the user has. */
+    int countTransactions(int userId) throws SQLException;
+
+    /** The number of the user's transactions that match the query's filters. */
+    int countTransactions(int userId, TransactionQuery query) throws SQLException;
+
+    /**
+     * One page of the user's history, newest first, starting right after {@code after}.
+     * @param after The last row of the previous page, or null for the first page.
+     */
+    List<TransactionRecord> loadTransactionPage(int userId, TransactionRecord after, int pageSize) throws SQLException;
+
+    /**
+     * One page of the rows matching the query, in its order, starting right after {@code after}.
+     * @param after The last row of the previous page, or null for the first page.
+     */
+    List<TransactionRecord> loadTransactionPage(int userId, TransactionQuery query, TransactionRecord after,
+                                                int pageSize) throws SQLException;
+
+    /** One page of the user's history, newest first, starting at a row offset. */
+    List<TransactionRecord> loadTransactionPageAt(int userId, int offset, int pageSize) throws SQLException;
+
+    /** One page of the rows matching the query, in its order, starting at a row offset. */
+    List<TransactionRecord> loadTransactionPageAt(int userId, TransactionQuery query, int offset, int pageSize)
+            throws SQLException;
+
+    /**
+     * Finds the user's transactions whose description or category contains every word of
+     * the query, each word also matching as a prefix.
+     * @return The best {@code limit} matches, best first.
+     */
+    SearchResult searchTransactions(int userId, String query, int limit) throws SQLException;
+
+    /** The totals, the expense breakdown and the given month's spend per category. */
+    DashboardSnapshot loadDashboardSnapshot(int userId, YearMonth month) throws SQLException;
+
+    /** The user's daily income and expense totals and monthly expenses per category, for the trends view. */
+    TrendData loadTrends(int userId) throws SQLException;
+}
@@ -0,0 +1,19 @@
+package expensetracker;
+
+/**
+ * An in-memory view of a user's transactions that has to be kept in step with every
+ * committed write, such as {@link LedgerCache} or {@link ColumnarStore}. Register it with
+ * {@link TransactionWrites#register}; the write paths notify every registered listener
+ * after their commit, on the thread that made the write.
+ */
+public interface TransactionWriteListener {
+
+    /** A transaction was inserted. */
+    void recordInsert(int userId, TransactionRecord transaction);
+
+    /** A transaction was deleted. */
+    void recordDelete(int userId, TransactionRecord transaction);
+
+    /** Many of the user's rows changed at once (an import, recurring entries); re-read rather than replay. */
+    void reload(int userId);
+}
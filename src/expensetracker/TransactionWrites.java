@@ -0,0 +1,40 @@
+package expensetracker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The listeners told about every committed transaction write, whether saved here,
+ * imported, generated by {@link RecurringScheduler} or pulled by {@link ReplicaSync}.
+ * Each cache registers itself when its class is first used; until then it holds nothing
+ * that could go stale.
+ */
+public final class TransactionWrites {
+
+    private static final List<TransactionWriteListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private TransactionWrites() {
+    }
+
+    public static void register(TransactionWriteListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    static void inserted(int userId, TransactionRecord transaction) {
+        for (TransactionWriteListener listener : LISTENERS) {
+            listener.recordInsert(userId, transaction);
+        }
+    }
+
+    static void deleted(int userId, TransactionRecord transaction) {
+        for (TransactionWriteListener listener : LISTENERS) {
+            listener.recordDelete(userId, transaction);
+        }
+    }
+
+    static void bulkChanged(int userId) {
+        for (TransactionWriteListener listener : LISTENERS) {
+            listener.reload(userId);
+        }
+    }
+}
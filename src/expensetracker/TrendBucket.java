@@ -0,0 +1,53 @@
+package expensetracker;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The width of one point on a trend chart, finest first. Each bucket is named by the
+ * day it starts on.
+ */
+public enum TrendBucket {
+    DAY("Day", 1),
+    WEEK("Week", 7),
+    MONTH("Month", 30.44),
+    QUARTER("Quarter", 91.31),
+    YEAR("Year", 365.25);
+
+    private final String label;
+    private final double averageDays;
+
+    TrendBucket(String label, double averageDays) {
+        this.label = label;
+        this.averageDays = averageDays;
+    }
+
+    public String getLabel() { return label; }
+
+    /** The first day of the bucket that contains {@code day}. */
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+            case QUARTER -> LocalDate.of(day.getYear(), (day.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            case YEAR -> day.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * The finest bucket, no finer than {@code finest}, that spreads the days from
+     * {@code first} to {@code last} over at most {@code maxPoints} points; YEAR if none does.
+     */
+    public static TrendBucket fit(LocalDate first, LocalDate last, int maxPoints, TrendBucket finest) {
+        long days = ChronoUnit.DAYS.between(first, last) + 1;
+        for (TrendBucket bucket : values()) {
+            if (bucket.compareTo(finest) >= 0 && Math.ceil(days / bucket.averageDays) <= maxPoints) {
+                return bucket;
+            }
+        }
+        return YEAR;
+    }
+}
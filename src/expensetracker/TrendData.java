@@ -0,0 +1,78 @@
+package expensetracker;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A user's history for the trends view, as read from the rollups: income and expense per
+ * day, and expenses per category per month. Charts ask for it in buckets wide enough to
+ * fit their width, so a decade of history is summed into a few hundred points on the
+ * client instead of being drawn day by day.
+ */
+public class TrendData {
+
+    // Day -> {income, expense}
+    private final SortedMap<LocalDate, double[]> daily = new TreeMap<>();
+    private final SortedMap<YearMonth, Map<String, Double>> monthlyExpenses = new TreeMap<>();
+
+    void addDay(LocalDate day, String type, double total) {
+        double[] sums = daily.computeIfAbsent(day, key -> new double[2]);
+        sums["Income".equals(type) ? 0 : 1] += total;
+    }
+
+    void addMonthExpense(YearMonth month, String category, double total) {
+        monthlyExpenses.computeIfAbsent(month, key -> new LinkedHashMap<>()).merge(category, total, Double::sum);
+    }
+
+    public boolean isEmpty() {
+        return daily.isEmpty();
+    }
+
+    /** The first day with a transaction; only call when not empty. */
+    public LocalDate getFirstDay() { return daily.firstKey(); }
+
+    /** The last day with a transaction; only call when not empty. */
+    public LocalDate getLastDay() { return daily.lastKey(); }
+
+    /**
+     * Income and expense totals per bucket, keyed by the bucket's first day, oldest first.
+     * @return {income, expense} per bucket; buckets without transactions are left out.
+     */
+    public SortedMap<LocalDate, double[]> getIncomeAndExpenses(TrendBucket bucket) {
+        SortedMap<LocalDate, double[]> buckets = new TreeMap<>();
+        daily.forEach((day, sums) -> {
+            double[] bucketSums = buckets.computeIfAbsent(bucket.start(day), key -> new double[2]);
+            bucketSums[0] += sums[0];
+            bucketSums[1] += sums[1];
+        });
+        return buckets;
+    }
+
+    /**
+     * Expense totals per category per bucket, keyed by the bucket's first day, oldest
+     * first. Categories are only rolled up per month, so finer buckets are read as MONTH.
+     */
+    public SortedMap<LocalDate, Map<String, Double>> getExpensesByCategory(TrendBucket bucket) {
+        TrendBucket width = bucket.compareTo(TrendBucket.MONTH) < 0 ? TrendBucket.MONTH : bucket;
+        SortedMap<LocalDate, Map<String, Double>> buckets = new TreeMap<>();
+        monthlyExpenses.forEach((month, byCategory) -> {
+            Map<String, Double> bucketSums = buckets.computeIfAbsent(width.start(month.atDay(1)), key -> new LinkedHashMap<>());
+            byCategory.forEach((category, total) -> bucketSums.merge(category, total, Double::sum));
+        });
+        return buckets;
+    }
+
+    /** Every category that had an expense, in the order they first appeared. */
+    public Set<String> getExpenseCategories() {
+        Set<String> categories = new LinkedHashSet<>();
+        monthlyExpenses.values().forEach(byCategory -> categories.addAll(byCategory.keySet()));
+        return Collections.unmodifiableSet(categories);
+    }
+}
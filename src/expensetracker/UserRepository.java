@@ -0,0 +1,28 @@
+package expensetracker;
+
+import java.sql.SQLException;
+
+/**
+ * Account storage: login, sign-up and password changes.
+ */
+public interface UserRepository {
+
+    /**
+     * Checks a username and password.
+     * @return The user_id on success, or -1 if they do not match an account.
+     */
+    int authenticate(String username, String password) throws SQLException;
+
+    /**
+     * Creates an account.
+     * @param email May be null.
+     * @return false if the username is already taken.
+     */
+    boolean createUser(String username, String password, String email) throws SQLException;
+
+    /**
+     * Replaces a user's password.
+     * @return false if no account has that username.
+     */
+    boolean updatePassword(String username, String newPassword) throws SQLException;
+}
@@ -0,0 +1,44 @@
+package expensetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarLedgerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void removesRowsByIdWhateverTheirSlot() {
+        ColumnarLedger ledger = new ColumnarLedger(1);
+        for (int id = 1; id <= 5; id++) {
+            ledger.add(new TransactionRecord(id, "Expense", "Rent", id, DAY, ""));
+        }
+
+        assertTrue(ledger.remove(2));   // the last row moves into slot 1
+        assertTrue(ledger.remove(5));   // and is still found there
+        assertTrue(ledger.remove(1));
+        assertFalse(ledger.remove(2), "already removed");
+        assertFalse(ledger.remove(42), "never added");
+
+        assertEquals(2, ledger.size());
+        assertEquals(700, ledger.sumCents(true, ColumnarLedger.ALL_DAYS_FROM, ColumnarLedger.ALL_DAYS_TO));
+    }
+
+    @Test
+    void removingTheLastRowLeavesTheOthers() {
+        ColumnarLedger ledger = new ColumnarLedger(1);
+        ledger.add(new TransactionRecord(10, "Income", "Salary", 100, DAY, ""));
+        ledger.add(new TransactionRecord(11, "Income", "Salary", 50, DAY, ""));
+
+        assertTrue(ledger.remove(11));
+        ledger.add(new TransactionRecord(12, "Income", "Salary", 25, DAY, ""));
+        assertTrue(ledger.remove(10));
+
+        assertEquals(2_500, ledger.sumCents(false, ColumnarLedger.ALL_DAYS_FROM, ColumnarLedger.ALL_DAYS_TO));
+    }
+}
@@ -0,0 +1,62 @@
+package expensetracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConnectionPoolTest {
+
+    private static final String SQL = "SELECT n FROM numbers ORDER BY n";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void openPool() throws SQLException {
+        // One connection, so every borrow gets the same statement cache
+        pool = new ConnectionPool("jdbc:h2:mem:pool-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "",
+                1, 1, 1_000, 60_000, 1_000, 2, 8);
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE numbers (n INT)");
+            stmt.execute("INSERT INTO numbers VALUES (1), (2), (3)");
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void cachedStatementComesBackWithoutTheLastBorrowersLimits() throws SQLException {
+        try (Connection conn = pool.borrow(); PreparedStatement pstmt = conn.prepareStatement(SQL)) {
+            pstmt.setMaxRows(1);
+            pstmt.setQueryTimeout(7);
+            assertEquals(1, countRows(pstmt));
+        }
+
+        try (Connection conn = pool.borrow(); PreparedStatement pstmt = conn.prepareStatement(SQL)) {
+            assertEquals(0, pstmt.getMaxRows());
+            assertEquals(0, pstmt.getQueryTimeout());
+            assertEquals(3, countRows(pstmt));
+        }
+        assertEquals(1, pool.getStatementStats().get(0).getHits());
+    }
+
+    private static int countRows(PreparedStatement pstmt) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,46 @@
+package expensetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntIntMapTest {
+
+    @Test
+    void behavesLikeAHashMapUnderRandomPutsAndRemoves() {
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int step = 0; step < 200_000; step++) {
+            // A small key range forces long probe runs, collisions and removals inside them
+            int key = random.nextInt(-50, 5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? IntIntMap.MISSING : removed, map.remove(key));
+            } else {
+                int value = random.nextInt(1_000_000);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -50; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, IntIntMap.MISSING), map.get(key));
+        }
+    }
+
+    @Test
+    void storesZeroAsKeyAndValue() {
+        IntIntMap map = new IntIntMap();
+        map.put(0, 0);
+        assertEquals(0, map.get(0));
+        assertEquals(0, map.remove(0));
+        assertEquals(IntIntMap.MISSING, map.get(0));
+    }
+}
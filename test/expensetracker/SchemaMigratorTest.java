@@ -0,0 +1,131 @@
+package expensetracker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every migration against the embedded backend's dialect (H2 in MySQL mode, with
+ * the same URL flags as {@link StorageBackend#EMBEDDED}), so a script that only MySQL
+ * accepts fails here instead of at startup of an embedded or replica install.
+ */
+class SchemaMigratorTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection(
+                "jdbc:h2:mem:migrations-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void appliesEveryMigrationOnTheEmbeddedBackend() throws SQLException {
+        int applied = new SchemaMigrator().migrate(conn);
+
+        assertTrue(applied > 0);
+        assertEquals(applied, count("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(0, new SchemaMigrator().migrate(conn), "a second run applies nothing");
+        assertFalse(hasIndex("users", "idx_users_username_password"));
+    }
+
+    @Test
+    void rerunsScriptsWhoseChangesAreAlreadyInPlace() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+        // As if V4 onwards had run but never been recorded
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM schema_version WHERE version >= 4");
+        }
+
+        int applied = new SchemaMigrator().migrate(conn);
+
+        assertTrue(applied >= 6);
+        assertFalse(hasIndex("users", "idx_users_username_password"), "V4 skips the index it already dropped");
+        assertTrue(hasIndex("transactions", "uq_transactions_entry_id"));
+    }
+
+    @Test
+    void backfillsTheRollupFromDaysOfTheSameMonth() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+        // Two days of one category and month: the backfill has to group them by the month expression
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO users (user_id, username, password) VALUES (1, 'alice', 'x')");
+            stmt.executeUpdate("INSERT INTO transactions (user_id, type, amount, category, description, transaction_date) "
+                    + "VALUES (1, 'Expense', 12.50, 'Food', 'lunch', DATE '2026-03-02'), "
+                    + "(1, 'Expense', 7.50, 'Food', 'coffee', DATE '2026-03-09')");
+            stmt.executeUpdate("DELETE FROM schema_version WHERE version >= 3");
+        }
+
+        new SchemaMigrator().migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT `year_month`, total, transaction_count FROM monthly_category_totals")) {
+            assertTrue(rs.next());
+            assertEquals("2026-03", rs.getString("year_month"));
+            assertEquals(20.0, rs.getDouble("total"), 0.001);
+            assertEquals(2, rs.getInt("transaction_count"));
+            assertFalse(rs.next());
+        }
+    }
+
+    @Test
+    void rollupStatementsRunOnTheMigratedSchema() throws SQLException {
+        new SchemaMigrator().migrate(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO users (user_id, username, password) VALUES (1, 'alice', 'x')");
+        }
+
+        TransactionRecord rent = new TransactionRecord(1, "Expense", "Rent", 950.0, LocalDate.of(2026, 3, 1), "March");
+        MonthlyRollup.apply(conn, 1, rent, 1);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT txn_day, total, transaction_count FROM daily_totals WHERE user_id = ?")) {
+            pstmt.setInt(1, 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(LocalDate.of(2026, 3, 1), rs.getDate("txn_day").toLocalDate());
+                assertEquals(950.0, rs.getDouble("total"), 0.001);
+                assertEquals(1, rs.getInt("transaction_count"));
+            }
+        }
+
+        MonthlyRollup.apply(conn, 1, rent, -1);
+        assertEquals(0, count("SELECT COUNT(*) FROM daily_totals"), "the emptied day is pruned");
+        assertEquals(0, count("SELECT COUNT(*) FROM monthly_category_totals"), "the emptied month is pruned");
+    }
+
+    private boolean hasIndex(String table, String index) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
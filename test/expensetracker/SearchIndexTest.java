@@ -0,0 +1,29 @@
+package expensetracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    @Test
+    void removedTransactionsNoLongerMatch() {
+        SearchIndex index = new SearchIndex(1);
+        for (int id = 1; id <= 4; id++) {
+            index.add(new TransactionRecord(id, "Expense", "Groceries", 10, LocalDate.of(2026, 3, id), "weekly shop"));
+        }
+
+        assertTrue(index.remove(2));
+        assertTrue(index.remove(4));
+        assertFalse(index.remove(2), "already removed");
+        assertFalse(index.remove(99), "never added");
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(3, 1), index.search("shop", 10).getTransactionIds());
+    }
+}
@@ -0,0 +1,27 @@
+package expensetracker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRecordTest {
+
+    @Test
+    void acceptsAmountsThatFitTheAmountColumn() {
+        assertTrue(TransactionRecord.isStorableAmount(0));
+        assertTrue(TransactionRecord.isStorableAmount(12.34));
+        assertTrue(TransactionRecord.isStorableAmount(9_999_999_999.99));
+        assertTrue(TransactionRecord.isStorableAmount(-9_999_999_999.99));
+    }
+
+    @Test
+    void refusesAmountsTheAmountColumnCannotHold() {
+        assertFalse(TransactionRecord.isStorableAmount(Double.NaN));
+        assertFalse(TransactionRecord.isStorableAmount(Double.POSITIVE_INFINITY));
+        assertFalse(TransactionRecord.isStorableAmount(Double.NEGATIVE_INFINITY));
+        assertFalse(TransactionRecord.isStorableAmount(10_000_000_000.0));
+        assertFalse(TransactionRecord.isStorableAmount(9_999_999_999.996), "rounds up to 11 digits");
+        assertFalse(TransactionRecord.isStorableAmount(1e300));
+    }
+}